@@ -0,0 +1,64 @@
+package com.example.beerservice;
+
+import com.example.beerservice.domain.Beer;
+import com.example.beerservice.web.model.BeerDto;
+import com.example.beerservice.web.model.BeerStyle;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+public final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    public static Beer beer(int i) {
+        var now = Timestamp.valueOf("2020-03-25 12:39:15.123456789");
+        return Beer.builder()
+                .id(UUID.randomUUID())
+                .version(1L)
+                .createdDate(now)
+                .lastModifiedDate(now)
+                .beerName("Benchmark Beer " + i)
+                .beerStyle(BeerStyle.values()[i % BeerStyle.values().length])
+                .upc(upc(i))
+                .price(new BigDecimal("12.95"))
+                .minOnHand(12)
+                .quantityToBrew(200)
+                .build();
+    }
+
+    public static BeerDto beerDto(int i) {
+        var now = OffsetDateTime.of(2020, 3, 25, 12, 39, 15, 123456789, ZoneOffset.UTC);
+        return BeerDto.builder()
+                .id(UUID.randomUUID())
+                .version(1L)
+                .createdDate(now)
+                .lastModifiedDate(now)
+                .beerName("Benchmark Beer " + i)
+                .beerStyle(BeerStyle.values()[i % BeerStyle.values().length])
+                .upc(upc(i))
+                .price(new BigDecimal("12.95"))
+                .quantityOnHand(100)
+                .build();
+    }
+
+    /**
+     * A new, unsaved beer as a client would post it.
+     */
+    public static BeerDto newBeerDto(int i) {
+        var beerDto = beerDto(i);
+        beerDto.setId(null);
+        beerDto.setVersion(null);
+        beerDto.setCreatedDate(null);
+        beerDto.setLastModifiedDate(null);
+        return beerDto;
+    }
+
+    public static String upc(int i) {
+        return String.format("9%012d", i);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.beerservice.domain.mapper;
+
+import com.example.beerservice.BenchmarkFixtures;
+import com.example.beerservice.domain.Beer;
+import com.example.beerservice.web.model.BeerDto;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BeerMapperBenchmark {
+
+    private AnnotationConfigApplicationContext context;
+
+    private BeerMapper beerMapper;
+
+    private Beer beer;
+
+    private BeerDto beerDto;
+
+    @Setup
+    public void setUp() {
+        // the generated mapper gets its DateMapper injected, so let spring wire it like in the application
+        context = new AnnotationConfigApplicationContext(BeerMapperImpl.class, DateMapper.class);
+        beerMapper = context.getBean(BeerMapper.class);
+        beer = BenchmarkFixtures.beer(1);
+        beerDto = BenchmarkFixtures.beerDto(1);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BeerDto beerToBeerDto() {
+        return beerMapper.beerToBeerDto(beer);
+    }
+
+    @Benchmark
+    public Beer beerDtoToBeer() {
+        return beerMapper.beerDtoToBeer(beerDto);
+    }
+
+    @Benchmark
+    public Beer roundTrip() {
+        return beerMapper.beerDtoToBeer(beerMapper.beerToBeerDto(beer));
+    }
+}
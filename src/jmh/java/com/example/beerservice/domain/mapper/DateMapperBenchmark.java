@@ -0,0 +1,51 @@
+package com.example.beerservice.domain.mapper;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the epoch arithmetic of {@link DateMapper} with the calendar based conversions. The fast path needs a
+ * fixed offset default zone, so fork with {@code -Duser.timezone=UTC} (the default below) to measure it.
+ */
+@State(Scope.Benchmark)
+@Fork(jvmArgsAppend = "-Duser.timezone=UTC")
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DateMapperBenchmark {
+
+    private final DateMapper dateMapper = new DateMapper();
+
+    private Timestamp timestamp;
+
+    private OffsetDateTime offsetDateTime;
+
+    @Setup
+    public void setUp() {
+        timestamp = Timestamp.valueOf("2020-03-25 12:39:15.123456789");
+        offsetDateTime = OffsetDateTime.of(2020, 3, 25, 12, 39, 15, 123456789, ZoneOffset.ofHours(1));
+    }
+
+    @Benchmark
+    public OffsetDateTime timestampToOffsetDateTime() {
+        return dateMapper.timestampToOffsetDateTime(timestamp);
+    }
+
+    @Benchmark
+    public Timestamp offsetDateTimeToTimestamp() {
+        return dateMapper.offsetDateTimeToTimestamp(offsetDateTime);
+    }
+
+    @Benchmark
+    public OffsetDateTime timestampToOffsetDateTimeViaCalendar() {
+        return CalendarDateConversions.timestampToOffsetDateTime(timestamp);
+    }
+
+    @Benchmark
+    public Timestamp offsetDateTimeToTimestampViaCalendar() {
+        return CalendarDateConversions.offsetDateTimeToTimestamp(offsetDateTime);
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.beerservice.repository;
+
+import com.example.beerservice.BenchmarkFixtures;
+import com.example.beerservice.BeerServiceApplication;
+import com.example.beerservice.domain.Beer;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Repository lookups with and without the l2cache profile. Besides the timings, the tear down prints the
+ * JDBC statements per lookup, which is what the second-level and query cache save.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BeerRepositoryCacheBenchmark {
+
+    @Param({"default", "l2cache"})
+    private String profile;
+
+    @Param({"1000"})
+    private int beerCount;
+
+    private ConfigurableApplicationContext context;
+
+    private BeerRepository beerRepository;
+
+    private Statistics statistics;
+
+    private List<UUID> ids;
+
+    private final AtomicLong lookups = new AtomicLong();
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(BeerServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles(profile)
+                .properties("spring.datasource.url=jdbc:h2:mem:beer-service-jmh-" + profile + ";DB_CLOSE_DELAY=-1",
+                        "spring.jpa.properties.hibernate.generate_statistics=true",
+                        "logging.level.root=warn")
+                .run();
+        beerRepository = context.getBean(BeerRepository.class);
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+
+        var beers = new ArrayList<Beer>(beerCount);
+        for (int i = 0; i < beerCount; i++)
+            beers.add(BenchmarkFixtures.beer(i));
+        beers.forEach(beer -> beer.setId(null));
+
+        ids = new ArrayList<>(beerCount);
+        beerRepository.saveAll(beers).forEach(beer -> ids.add(beer.getId()));
+        statistics.clear();
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.out.printf("%n%s: %.3f statements per lookup, second-level cache %d hits/%d misses, query cache %d hits/%d misses%n",
+                profile, (double) statistics.getPrepareStatementCount() / Math.max(lookups.get(), 1),
+                statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount(),
+                statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount());
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<Beer> findById() {
+        lookups.incrementAndGet();
+        return beerRepository.findById(randomId());
+    }
+
+    @Benchmark
+    public List<Object[]> findWithInventoryByUpc() {
+        lookups.incrementAndGet();
+        return beerRepository.findWithInventoryByUpc(BenchmarkFixtures.upc(ThreadLocalRandom.current().nextInt(beerCount)));
+    }
+
+    @Benchmark
+    public long count() {
+        lookups.incrementAndGet();
+        return beerRepository.count();
+    }
+
+    private UUID randomId() {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+}
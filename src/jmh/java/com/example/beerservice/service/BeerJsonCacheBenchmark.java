@@ -0,0 +1,77 @@
+package com.example.beerservice.service;
+
+import com.example.beerservice.BenchmarkFixtures;
+import com.example.beerservice.web.model.BeerDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.ByteArrayHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes a beer to a response body the way {@code GET /api/v1/beer/{beerId}} did before (Jackson converter on
+ * every request) and with the bytes from {@link BeerJsonCache}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BeerJsonCacheBenchmark {
+
+    private MappingJackson2HttpMessageConverter jsonConverter;
+
+    private ByteArrayHttpMessageConverter bytesConverter;
+
+    private BeerJsonCache beerJsonCache;
+
+    private BeerDto beerDto;
+
+    @Setup
+    public void setUp() {
+        // same builder spring boot uses for the application's ObjectMapper
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        jsonConverter = new MappingJackson2HttpMessageConverter(objectMapper);
+        bytesConverter = new ByteArrayHttpMessageConverter();
+        beerJsonCache = new BeerJsonCache(objectMapper, 1000, new SimpleMeterRegistry());
+        beerDto = BenchmarkFixtures.beerDto(1);
+    }
+
+    @Benchmark
+    public int writeSerializedOnEveryRequest() throws IOException {
+        var response = new BufferedResponse();
+        jsonConverter.write(beerDto, MediaType.APPLICATION_JSON, response);
+        return response.body.size();
+    }
+
+    @Benchmark
+    public int writeCachedBytes() throws IOException {
+        var response = new BufferedResponse();
+        bytesConverter.write(beerJsonCache.get(beerDto).getJson(), MediaType.APPLICATION_JSON, response);
+        return response.body.size();
+    }
+
+    private static class BufferedResponse implements HttpOutputMessage {
+
+        private final HttpHeaders headers = new HttpHeaders();
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream(512);
+
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
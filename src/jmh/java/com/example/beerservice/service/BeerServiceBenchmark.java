@@ -0,0 +1,89 @@
+package com.example.beerservice.service;
+
+import com.example.beerservice.BenchmarkFixtures;
+import com.example.beerservice.BeerServiceApplication;
+import com.example.beerservice.web.model.BeerDto;
+import com.example.beerservice.web.model.BeerList;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the service against the full application context on an in-memory H2 database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BeerServiceBenchmark {
+
+    @Param({"1000"})
+    private int beerCount;
+
+    private ConfigurableApplicationContext context;
+
+    private BeerService beerService;
+
+    private BeerDtoCache beerDtoCache;
+
+    private List<UUID> ids;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(BeerServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.datasource.url=jdbc:h2:mem:beer-service-jmh;DB_CLOSE_DELAY=-1",
+                        "logging.level.root=warn")
+                .run();
+        beerService = context.getBean(BeerService.class);
+        beerDtoCache = context.getBean(BeerDtoCache.class);
+
+        var beers = new ArrayList<BeerDto>(beerCount);
+        for (int i = 0; i < beerCount; i++)
+            beers.add(BenchmarkFixtures.newBeerDto(i));
+
+        ids = new ArrayList<>(beerCount);
+        beerService.saveNewBeers(beers).getItems().forEach(item -> ids.add(item.getId()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BeerDto getByIdCached() {
+        return beerService.getById(randomId());
+    }
+
+    @Benchmark
+    public BeerDto getByIdUncached() {
+        var id = randomId();
+        beerDtoCache.invalidate(id);
+        return beerService.getById(id);
+    }
+
+    @Benchmark
+    public BeerList listBeers() {
+        return beerService.listBeers(null, null, PageRequest.of(0, 25, Sort.by("beerName", "id")));
+    }
+
+    @Benchmark
+    public void updateBeer() {
+        // keep the upc of the beer at that index, it is unique
+        var i = ThreadLocalRandom.current().nextInt(ids.size());
+        beerService.updateBeer(ids.get(i), BenchmarkFixtures.newBeerDto(i));
+    }
+
+    private UUID randomId() {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.beerservice.web.model;
+
+import com.example.beerservice.BenchmarkFixtures;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BeerJsonBenchmark {
+
+    @Param({"25", "250"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+
+    private BeerDto beerDto;
+
+    private BeerList beerList;
+
+    private byte[] beerDtoJson;
+
+    private byte[] beerListJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        // same builder spring boot uses for the application's ObjectMapper
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        beerDto = BenchmarkFixtures.beerDto(1);
+
+        var content = new ArrayList<BeerDto>(pageSize);
+        for (int i = 0; i < pageSize; i++)
+            content.add(BenchmarkFixtures.beerDto(i));
+        beerList = new BeerList(content, PageRequest.of(0, pageSize), 10_000);
+
+        beerDtoJson = objectMapper.writeValueAsBytes(beerDto);
+        beerListJson = objectMapper.writeValueAsBytes(beerList);
+    }
+
+    @Benchmark
+    public byte[] serializeBeerDto() throws IOException {
+        return objectMapper.writeValueAsBytes(beerDto);
+    }
+
+    @Benchmark
+    public BeerDto deserializeBeerDto() throws IOException {
+        return objectMapper.readValue(beerDtoJson, BeerDto.class);
+    }
+
+    @Benchmark
+    public byte[] serializeBeerList() throws IOException {
+        return objectMapper.writeValueAsBytes(beerList);
+    }
+
+    @Benchmark
+    public BeerList deserializeBeerList() throws IOException {
+        return objectMapper.readValue(beerListJson, BeerList.class);
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.beerservice.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-loop load generator for the beer api: keeps {@code concurrency} requests in flight for
+ * {@code durationSeconds} and prints throughput, latency percentiles and the status codes seen.
+ * <p>
+ * Compare the execution modes by starting the service once with the defaults and once with
+ * {@code --beer.execution.mode=offload}, then running the same scenario against both:
+ * <pre>
+ * ./gradlew loadTest -Pconcurrency=500 -PdurationSeconds=60 -Pscenario=mixed
+ * </pre>
+ * The same works for the connection pool and JDBC settings of the {@code production} profile. {@code seed} tops
+ * the catalogue up to that many beers through the batch endpoint first, so the lookups don't all hit the same
+ * three rows.
+ * <p>
+ * Scenarios: {@code get} (beers by id), {@code list} (first pages), {@code mixed} (90% get, 10% list),
+ * {@code write} (inventory increments, one short transaction each).
+ */
+public class BeerApiLoadTest {
+
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*\"([0-9a-f-]{36})\"");
+    private static final Pattern TOTAL_ELEMENTS = Pattern.compile("\"totalElements\"\\s*:\\s*(\\d+)");
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final int SEED_BATCH_SIZE = 1000;
+    private static final String[] STYLES = {"LAGER", "PILSNER", "STOUT", "GOSE", "PORTER", "ALE", "WHEAT", "IPA", "PALE_ALE", "SAISON"};
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final String baseUrl;
+    private final ConcurrentLinkedQueue<Long> latenciesMicros = new ConcurrentLinkedQueue<>();
+    private final ConcurrentHashMap<String, AtomicLong> outcomes = new ConcurrentHashMap<>();
+
+    private BeerApiLoadTest(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    public static void main(String[] args) throws Exception {
+        var baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        var concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        var durationSeconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        var scenario = args.length > 3 ? args[3] : "mixed";
+        var seed = args.length > 4 ? Integer.parseInt(args[4]) : 0;
+
+        var loadTest = new BeerApiLoadTest(baseUrl);
+        loadTest.seed(seed);
+        loadTest.run(concurrency, Duration.ofSeconds(durationSeconds), scenario);
+    }
+
+    private void run(int concurrency, Duration duration, String scenario) throws Exception {
+        var ids = loadIds();
+        if (ids.isEmpty())
+            throw new IllegalStateException("No beers found at " + baseUrl);
+
+        System.out.printf("%s: %d in flight for %ds against %s (%d beers)%n",
+                scenario, concurrency, duration.toSeconds(), baseUrl, ids.size());
+
+        var inFlight = new Semaphore(concurrency);
+        var start = System.nanoTime();
+        var end = start + duration.toNanos();
+
+        while (System.nanoTime() < end) {
+            if (!inFlight.tryAcquire(100, TimeUnit.MILLISECONDS))
+                continue;
+
+            var request = nextRequest(scenario, ids);
+            var sent = System.nanoTime();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, failure) -> {
+                        latenciesMicros.add((System.nanoTime() - sent) / 1000);
+                        var outcome = failure != null ? failure.getClass().getSimpleName() : String.valueOf(response.statusCode());
+                        outcomes.computeIfAbsent(outcome, o -> new AtomicLong()).incrementAndGet();
+                        inFlight.release();
+                    });
+        }
+
+        // let the requests still in flight finish before reporting
+        inFlight.tryAcquire(concurrency, REQUEST_TIMEOUT.toSeconds(), TimeUnit.SECONDS);
+        report(Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    private HttpRequest nextRequest(String scenario, List<String> ids) {
+        var random = ThreadLocalRandom.current();
+        var id = ids.get(random.nextInt(ids.size()));
+        if ("write".equals(scenario))
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/beer/" + id + "/inventory/increment?quantity=1"))
+                    .timeout(REQUEST_TIMEOUT)
+                    .POST(HttpRequest.BodyPublishers.noBody())
+                    .build();
+
+        var list = "list".equals(scenario) || ("mixed".equals(scenario) && random.nextInt(10) == 0);
+        var uri = list
+                ? URI.create(baseUrl + "/api/v1/beer?pageNumber=" + random.nextInt(4) + "&pageSize=25")
+                : URI.create(baseUrl + "/api/v1/beer/" + id);
+        return HttpRequest.newBuilder(uri)
+                .timeout(REQUEST_TIMEOUT)
+                .GET()
+                .build();
+    }
+
+    private void seed(int beerCount) throws Exception {
+        var existing = countBeers();
+        if (existing >= beerCount)
+            return;
+
+        System.out.printf("seeding %d beers%n", beerCount - existing);
+        for (var i = existing; i < beerCount; i += SEED_BATCH_SIZE) {
+            var body = new StringBuilder("[");
+            for (var j = i; j < Math.min(i + SEED_BATCH_SIZE, beerCount); j++) {
+                if (j > i)
+                    body.append(',');
+                body.append(String.format("{\"beerName\":\"Load Test Beer %d\",\"beerStyle\":\"%s\",\"upc\":\"%013d\",\"price\":\"%d.95\",\"quantityOnHand\":100}",
+                        j, STYLES[j % STYLES.length], 9_000_000_000_000L + j, 5 + j % 20));
+            }
+            body.append(']');
+
+            var request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/beer/batch"))
+                    .timeout(REQUEST_TIMEOUT)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                    .build();
+            var response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() >= 300)
+                throw new IllegalStateException("Seeding failed with " + response.statusCode());
+        }
+    }
+
+    private int countBeers() throws Exception {
+        var request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/beer?pageSize=1"))
+                .timeout(REQUEST_TIMEOUT)
+                .GET()
+                .build();
+        var matcher = TOTAL_ELEMENTS.matcher(client.send(request, HttpResponse.BodyHandlers.ofString()).body());
+        return matcher.find() ? Integer.parseInt(matcher.group(1)) : 0;
+    }
+
+    private List<String> loadIds() throws Exception {
+        var request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/beer/keyset?pageSize=1000"))
+                .timeout(REQUEST_TIMEOUT)
+                .GET()
+                .build();
+        var body = client.send(request, HttpResponse.BodyHandlers.ofString()).body();
+
+        var ids = new ArrayList<String>();
+        var matcher = ID.matcher(body);
+        while (matcher.find())
+            ids.add(matcher.group(1));
+        return ids;
+    }
+
+    private void report(Duration elapsed) {
+        var latencies = latenciesMicros.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(latencies);
+
+        System.out.printf("requests: %d in %.1fs (%.0f req/s)%n",
+                latencies.length, elapsed.toMillis() / 1000.0, latencies.length * 1000.0 / elapsed.toMillis());
+        System.out.printf("latency ms: p50 %.1f, p95 %.1f, p99 %.1f, max %.1f%n",
+                percentile(latencies, 0.5), percentile(latencies, 0.95), percentile(latencies, 0.99),
+                percentile(latencies, 1.0));
+        outcomes.forEach((outcome, count) -> System.out.printf("  %s: %d%n", outcome, count.get()));
+    }
+
+    private static double percentile(long[] sortedMicros, double percentile) {
+        if (sortedMicros.length == 0)
+            return 0;
+        var index = (int) Math.ceil(percentile * sortedMicros.length) - 1;
+        return sortedMicros[Math.max(index, 0)] / 1000.0;
+    }
+}
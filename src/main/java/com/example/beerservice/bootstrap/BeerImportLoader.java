@@ -0,0 +1,34 @@
+package com.example.beerservice.bootstrap;
+
+import com.example.beerservice.service.BeerImportService;
+import com.example.beerservice.web.model.BeerExportFormat;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Imports the catalogue file named by {@code beer.import.file} once the application is up, e.g. to onboard a
+ * supplier. Beers whose upc is already known are skipped, so restarting with the same file is harmless.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty("beer.import.file")
+public class BeerImportLoader {
+
+    private final BeerImportService beerImportService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void importFile(ApplicationReadyEvent event) {
+        var file = Path.of(event.getApplicationContext().getEnvironment().getRequiredProperty("beer.import.file"));
+        var format = file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".csv")
+                ? BeerExportFormat.CSV
+                : BeerExportFormat.NDJSON;
+
+        beerImportService.importFile(file, format);
+    }
+}
@@ -2,38 +2,42 @@ package com.example.beerservice.bootstrap;
 
 import com.example.beerservice.domain.Beer;
 import com.example.beerservice.repository.BeerRepository;
+import com.example.beerservice.service.BeerChangedEvent;
+import com.example.beerservice.web.model.BeerStyle;
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
 
+/**
+ * Seeds an empty catalogue. Called by {@link BeerWarmup} once the application is ready rather than while the
+ * context starts, so seeding doesn't add to the startup time.
+ */
 @Component
 @RequiredArgsConstructor
-@Profile({"!staging", "!production"})
-public class BeerLoader implements InitializingBean {
+@Profile("!staging & !production")
+public class BeerLoader {
 
     private static final String BEER_1_UPC = "0631234200036";
     private static final String BEER_2_UPC = "0631234300019";
     private static final String BEER_3_UPC = "0083783375213";
 
     private final BeerRepository beerRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
 
-    @Override
-    public void afterPropertiesSet() throws Exception {
-        loadBeers();
-    }
-
-    private void loadBeers() {
+    public void loadBeers() {
         if (beerRepository.count() > 0) {
             return;
         }
         var beers = Arrays.asList(
                 Beer.builder()
                         .beerName("Mango Bobs")
-                        .beerStyle("IPA")
+                        .beerStyle(BeerStyle.IPA)
                         .minOnHand(12)
                         .quantityToBrew(200)
                         .upc(BEER_1_UPC)
@@ -41,7 +45,7 @@ public class BeerLoader implements InitializingBean {
                         .build(),
                 Beer.builder()
                         .beerName("Stiegl")
-                        .beerStyle("Lager")
+                        .beerStyle(BeerStyle.LAGER)
                         .minOnHand(15)
                         .quantityToBrew(250)
                         .upc(BEER_2_UPC)
@@ -49,7 +53,7 @@ public class BeerLoader implements InitializingBean {
                         .build(),
                 Beer.builder()
                         .beerName("Kaiser")
-                        .beerStyle("Lager")
+                        .beerStyle(BeerStyle.LAGER)
                         .minOnHand(15)
                         .quantityToBrew(250)
                         .upc(BEER_3_UPC)
@@ -57,6 +61,11 @@ public class BeerLoader implements InitializingBean {
                         .build()
         );
 
-        beerRepository.saveAll(beers);
+        // the application is already serving, the outbox and in-memory views must learn about the seeded beers
+        transactionTemplate.execute(status -> {
+            beerRepository.saveAll(beers)
+                    .forEach(beer -> eventPublisher.publishEvent(BeerChangedEvent.created(beer.getId(), beer.getPrice())));
+            return null;
+        });
     }
 }
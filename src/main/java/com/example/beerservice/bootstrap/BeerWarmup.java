@@ -0,0 +1,75 @@
+package com.example.beerservice.bootstrap;
+
+import com.example.beerservice.metrics.StartupMetrics;
+import com.example.beerservice.service.WarmupTask;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Seeds the catalogue and runs the {@link WarmupTask}s on a background thread once the application is ready, so
+ * the context starts without waiting for them. Until they are done the {@code warmup} health indicator keeps the
+ * instance out of the readiness group, see {@link WarmupHealthIndicator}.
+ */
+@Slf4j
+@Component
+public class BeerWarmup {
+
+    private final ObjectProvider<BeerLoader> beerLoader;
+    private final ObjectProvider<WarmupTask> warmupTasks;
+    private final StartupMetrics startupMetrics;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("beer-warmup-"));
+
+    private volatile boolean warm;
+    private volatile Throwable failure;
+
+    public BeerWarmup(ObjectProvider<BeerLoader> beerLoader,
+                      ObjectProvider<WarmupTask> warmupTasks,
+                      StartupMetrics startupMetrics) {
+        this.beerLoader = beerLoader;
+        this.warmupTasks = warmupTasks;
+        this.startupMetrics = startupMetrics;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        executor.execute(this::warmUp);
+    }
+
+    public boolean isWarm() {
+        return warm;
+    }
+
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    void warmUp() {
+        try {
+            // seeded first, the tasks build their views from the catalogue
+            beerLoader.ifAvailable(BeerLoader::loadBeers);
+            warmupTasks.orderedStream().forEach(task -> {
+                log.debug("Warming up {}", task.getClass().getSimpleName());
+                task.warmUp();
+            });
+            warm = true;
+            startupMetrics.recordWarm();
+        } catch (RuntimeException e) {
+            log.error("Warmup failed, the instance stays out of the readiness group", e);
+            failure = e;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.beerservice.bootstrap;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code warmup} health, out of service until {@link BeerWarmup} is done. Part of the {@code readiness} health
+ * group only, a warming instance must not get traffic but must not be restarted either.
+ */
+@Component
+@RequiredArgsConstructor
+public class WarmupHealthIndicator extends AbstractHealthIndicator {
+
+    private final BeerWarmup beerWarmup;
+
+    @Override
+    protected void doHealthCheck(Health.Builder builder) {
+        if (beerWarmup.getFailure() != null)
+            builder.down(beerWarmup.getFailure());
+        else if (beerWarmup.isWarm())
+            builder.up();
+        else
+            builder.outOfService();
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.beerservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Sizes the Hikari pool from the number of cores when {@code beer.datasource.connections-per-core} is set,
+ * so the same profile fits machines of different sizes. The pool is kept at a fixed size (minimum idle equals
+ * maximum), a pool that grows under load only adds connection setup to the slowest moment. It never gets smaller
+ * than Hikari's default of {@value #MIN_POOL_SIZE}: on a machine with few cores a request that waits on the
+ * database would otherwise hold one of very few connections while the others queue for it.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnClass(HikariDataSource.class)
+public class DataSourcePoolConfig {
+
+    static final int MIN_POOL_SIZE = 10;
+
+    @Bean
+    public static BeanPostProcessor hikariPoolSizer(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                var connectionsPerCore = environment.getProperty("beer.datasource.connections-per-core", Integer.class, 0);
+                if (bean instanceof HikariDataSource && connectionsPerCore > 0) {
+                    var dataSource = (HikariDataSource) bean;
+                    var poolSize = poolSize(Runtime.getRuntime().availableProcessors(), connectionsPerCore);
+                    dataSource.setMaximumPoolSize(poolSize);
+                    dataSource.setMinimumIdle(poolSize);
+                    log.info("Sized connection pool {} to {} connections", dataSource.getPoolName(), poolSize);
+                }
+                return bean;
+            }
+        };
+    }
+
+    static int poolSize(int cores, int connectionsPerCore) {
+        return Math.max(cores * connectionsPerCore, MIN_POOL_SIZE);
+    }
+}
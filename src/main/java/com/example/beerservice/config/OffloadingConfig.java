@@ -0,0 +1,59 @@
+package com.example.beerservice.config;
+
+import com.example.beerservice.web.filter.OffloadingFilter;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opt-in execution mode ({@code beer.execution.mode=offload}) that runs the beer api on a bounded worker pool
+ * instead of the servlet container's request threads, see {@link OffloadingFilter}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "beer.execution.mode", havingValue = "offload")
+public class OffloadingConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService offloadExecutor(@Value("${beer.execution.offload.workers:0}") int workers,
+                                           @Value("${beer.execution.offload.queue-capacity:2000}") int queueCapacity,
+                                           ObjectProvider<HikariDataSource> dataSource,
+                                           MeterRegistry meterRegistry) {
+        if (workers <= 0) {
+            // one worker per connection, more would only wait for the pool
+            var hikari = dataSource.getIfAvailable();
+            workers = hikari != null ? hikari.getMaximumPoolSize() : 10;
+        }
+        var executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("beer-offload-"));
+
+        return ExecutorServiceMetrics.monitor(meterRegistry, executor, "beer.offload");
+    }
+
+    @Bean
+    public FilterRegistrationBean<OffloadingFilter> offloadingFilter(ExecutorService offloadExecutor,
+                                                                     @Value("${beer.execution.offload.timeout:30s}") Duration timeout,
+                                                                     @Value("${beer.execution.offload.excluded-path-suffixes:/export,/import,/events}") List<String> excludedPathSuffixes) {
+        var registration = new FilterRegistrationBean<>(
+                new OffloadingFilter(offloadExecutor, timeout.toMillis(), excludedPathSuffixes));
+        registration.addUrlPatterns("/api/v1/beer", "/api/v1/beer/*");
+        registration.setAsyncSupported(true);
+        // ahead of the metrics filter, which would otherwise wait for an async dispatch that never happens
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
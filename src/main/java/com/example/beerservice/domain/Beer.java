@@ -1,8 +1,12 @@
 package com.example.beerservice.domain;
 
+import com.example.beerservice.web.model.BeerStyle;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Type;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import javax.persistence.*;
@@ -11,6 +15,10 @@ import java.sql.Timestamp;
 import java.util.UUID;
 
 @Entity
+// only active with the l2cache profile; read-write keeps versioned updates consistent with the cached state.
+// The region name must not contain dots, the Caffeine configuration would read them as nested keys
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "beer")
+@Table(indexes = @Index(name = "ix_beer_beer_style", columnList = "beerStyle"))
 @Getter
 @Setter
 @Builder
@@ -18,10 +26,11 @@ import java.util.UUID;
 @AllArgsConstructor
 public class Beer {
     @Id
-    // let Hibernate create the uuid for us
+    // let Hibernate create a time-ordered uuid and store it as 16 bytes instead of 36 characters
     @GeneratedValue(generator = "UUID")
-    @GenericGenerator(name = "UUID", strategy = "org.hibernate.id.UUIDGenerator")
-    @Column(length = 36, columnDefinition = "varchar", nullable = false, updatable = false)
+    @GenericGenerator(name = "UUID", strategy = "com.example.beerservice.domain.TimeOrderedUuidGenerator")
+    @Type(type = "uuid-binary")
+    @Column(length = 16, columnDefinition = "binary(16)", nullable = false, updatable = false)
     private UUID id;
 
     @Version
@@ -34,11 +43,19 @@ public class Beer {
     private Timestamp lastModifiedDate;
 
     private String beerName;
-    private String beerStyle;
+    // one byte per row instead of the name, see BeerStyle for why the constants must keep their order
+    @Enumerated(EnumType.ORDINAL)
+    @Column(columnDefinition = "tinyint")
+    private BeerStyle beerStyle;
     @Column(unique = true)
     private String upc;
     private BigDecimal price;
 
     private Integer minOnHand;
     private Integer quantityToBrew;
+
+    // folded quantity, pending BeerInventoryAdjustments come on top of it
+    private Integer quantityOnHand;
+    // creation time of the newest adjustment folded into quantityOnHand
+    private Timestamp inventoryModifiedDate;
 }
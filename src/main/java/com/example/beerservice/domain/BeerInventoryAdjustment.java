@@ -0,0 +1,38 @@
+package com.example.beerservice.domain;
+
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Type;
+
+import javax.persistence.*;
+import java.sql.Timestamp;
+import java.util.UUID;
+
+/**
+ * Append-only change of the quantity on hand of a beer. Adjustments are only ever inserted, so concurrent
+ * increments and decrements of the same beer never wait for each other; they are periodically folded into
+ * {@link Beer#getQuantityOnHand()} and deleted.
+ */
+@Entity
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(indexes = @Index(name = "ix_beer_inventory_adjustment_beer_id", columnList = "beerId"))
+public class BeerInventoryAdjustment {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Type(type = "uuid-binary")
+    @Column(length = 16, columnDefinition = "binary(16)", nullable = false, updatable = false)
+    private UUID beerId;
+
+    @Column(nullable = false, updatable = false)
+    private Long delta;
+
+    @CreationTimestamp
+    @Column(updatable = false)
+    private Timestamp createdDate;
+}
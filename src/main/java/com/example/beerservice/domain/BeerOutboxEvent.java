@@ -0,0 +1,48 @@
+package com.example.beerservice.domain;
+
+import com.example.beerservice.service.BeerChangeType;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Type;
+
+import javax.persistence.*;
+import java.sql.Timestamp;
+import java.util.UUID;
+
+/**
+ * A beer change, written in the transaction that made it. The relay gives committed events their position
+ * in the change stream, in the order it finds them, and marks them published once every publisher took them.
+ */
+@Entity
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(indexes = {
+        @Index(name = "ix_beer_outbox_event_position", columnList = "position", unique = true),
+        @Index(name = "ix_beer_outbox_event_published_date", columnList = "publishedDate")
+})
+public class BeerOutboxEvent {
+    @Id
+    // a pooled sequence instead of identity, so the events of batch writes are inserted in JDBC batches too
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "beer_outbox_event_seq")
+    @SequenceGenerator(name = "beer_outbox_event_seq", allocationSize = 50)
+    private Long id;
+
+    @Type(type = "uuid-binary")
+    @Column(length = 16, columnDefinition = "binary(16)", nullable = false, updatable = false)
+    private UUID beerId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20, nullable = false, updatable = false)
+    private BeerChangeType type;
+
+    @CreationTimestamp
+    @Column(updatable = false)
+    private Timestamp createdDate;
+
+    // null until relayed, gapless and in commit order afterwards
+    private Long position;
+    private Timestamp publishedDate;
+}
@@ -0,0 +1,41 @@
+package com.example.beerservice.domain;
+
+import lombok.*;
+import org.hibernate.annotations.Type;
+
+import javax.persistence.*;
+import java.util.UUID;
+
+/**
+ * A price a beer had from {@code effectiveFrom} on, until its next change. Appended in the transaction that
+ * changed the price and never updated, {@link Beer#getPrice()} stays the current price.
+ * <p>
+ * A row is 40 bytes: the price as a {@code long} number of cents and the time as epoch milliseconds take 8 bytes
+ * each, where a {@code DECIMAL} and a {@code TIMESTAMP} would take about twice as much.
+ */
+@Entity
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(indexes = @Index(name = "ix_beer_price_change_beer_id_effective_from", columnList = "beerId, effectiveFrom"))
+public class BeerPriceChange {
+    @Id
+    // a pooled sequence instead of identity, so the changes of batch writes are inserted in JDBC batches too
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "beer_price_change_seq")
+    @SequenceGenerator(name = "beer_price_change_seq", allocationSize = 50)
+    private Long id;
+
+    @Type(type = "uuid-binary")
+    @Column(length = 16, columnDefinition = "binary(16)", nullable = false, updatable = false)
+    private UUID beerId;
+
+    // see PriceCents
+    @Column(nullable = false, updatable = false)
+    private long priceCents;
+
+    // epoch milliseconds
+    @Column(nullable = false, updatable = false)
+    private long effectiveFrom;
+}
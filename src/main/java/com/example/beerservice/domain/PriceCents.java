@@ -0,0 +1,25 @@
+package com.example.beerservice.domain;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Prices as a {@code long} number of cents, for aggregates and compact storage that don't need
+ * {@link BigDecimal} arithmetic.
+ */
+public final class PriceCents {
+
+    private PriceCents() {
+    }
+
+    /**
+     * @return the price in cents, rounded half up, 0 for null
+     */
+    public static long of(BigDecimal price) {
+        return price == null ? 0 : price.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    public static BigDecimal toPrice(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+}
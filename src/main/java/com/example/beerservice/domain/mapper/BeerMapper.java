@@ -3,6 +3,8 @@ package com.example.beerservice.domain.mapper;
 import com.example.beerservice.domain.Beer;
 import com.example.beerservice.web.model.BeerDto;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
 
 @Mapper(componentModel = "spring", uses = DateMapper.class)
 public interface BeerMapper {
@@ -10,4 +12,12 @@ public interface BeerMapper {
     BeerDto beerToBeerDto(Beer beer);
 
     Beer beerDtoToBeer(BeerDto beerDto);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "createdDate", ignore = true)
+    @Mapping(target = "lastModifiedDate", ignore = true)
+    // the quantity on hand only changes through inventory adjustments
+    @Mapping(target = "quantityOnHand", ignore = true)
+    void updateBeerFromBeerDto(BeerDto beerDto, @MappingTarget Beer beer);
 }
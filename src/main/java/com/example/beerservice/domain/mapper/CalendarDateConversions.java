@@ -0,0 +1,27 @@
+package com.example.beerservice.domain.mapper;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * The original, calendar based conversions of {@link DateMapper}. They define the semantics the fast path has to
+ * reproduce: the wall clock time of the default time zone is labelled as UTC, and back.
+ */
+final class CalendarDateConversions {
+
+    private CalendarDateConversions() {
+    }
+
+    static OffsetDateTime timestampToOffsetDateTime(Timestamp timestamp) {
+        LocalDateTime localDateTime = timestamp.toLocalDateTime();
+        return OffsetDateTime.of(localDateTime.getYear(), localDateTime.getMonthValue(), localDateTime.getDayOfMonth(),
+                localDateTime.getHour(), localDateTime.getMinute(), localDateTime.getSecond(), localDateTime.getNano(),
+                ZoneOffset.UTC);
+    }
+
+    static Timestamp offsetDateTimeToTimestamp(OffsetDateTime offsetDateTime) {
+        return Timestamp.valueOf(offsetDateTime.atZoneSameInstant(ZoneOffset.UTC).toLocalDateTime());
+    }
+}
@@ -3,27 +3,65 @@ package com.example.beerservice.domain.mapper;
 import org.springframework.stereotype.Component;
 
 import java.sql.Timestamp;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
+import java.time.ZoneId;
 import java.time.ZoneOffset;
 
+/**
+ * Converts between the {@link Timestamp}s of the entities and the {@link OffsetDateTime}s of the dtos.
+ * <p>
+ * When the default time zone has a fixed offset (e.g. UTC on a server), the conversion is plain epoch second
+ * arithmetic. Otherwise, and for dates before 1900 where {@link Timestamp} switches to the julian calendar
+ * eventually, it falls back to {@link CalendarDateConversions}. Both paths give identical results.
+ */
 @Component
 public class DateMapper {
 
+    // 1900-01-01T00:00:00Z, far away from the julian/gregorian cutover of java.util.Date
+    private static final long FAST_PATH_MIN_EPOCH_SECOND = -2208988800L;
+
+    // null if the default zone has offset transitions
+    private final ZoneOffset fixedOffset;
+
+    public DateMapper() {
+        this(ZoneId.systemDefault());
+    }
+
+    /**
+     * @param defaultZone the zone {@link Timestamp} uses, i.e. the JVM default time zone
+     */
+    DateMapper(ZoneId defaultZone) {
+        var rules = defaultZone.getRules();
+        this.fixedOffset = rules.isFixedOffset() ? rules.getOffset(Instant.EPOCH) : null;
+    }
+
     public OffsetDateTime timestampToOffsetDateTime(Timestamp timestamp) {
         if (timestamp == null)
             return null;
 
-        LocalDateTime localDateTime = timestamp.toLocalDateTime();
-        return OffsetDateTime.of(localDateTime.getYear(), localDateTime.getMonthValue(), localDateTime.getDayOfMonth(),
-                localDateTime.getHour(), localDateTime.getMinute(), localDateTime.getSecond(), localDateTime.getNano(),
-                ZoneOffset.UTC);
+        var epochSecond = Math.floorDiv(timestamp.getTime(), 1000);
+        if (fixedOffset == null || epochSecond < FAST_PATH_MIN_EPOCH_SECOND)
+            return CalendarDateConversions.timestampToOffsetDateTime(timestamp);
+
+        // the wall clock time in the default zone, labelled as UTC
+        var localDateTime = LocalDateTime.ofEpochSecond(epochSecond + fixedOffset.getTotalSeconds(),
+                timestamp.getNanos(), ZoneOffset.UTC);
+        return OffsetDateTime.of(localDateTime, ZoneOffset.UTC);
     }
 
     public Timestamp offsetDateTimeToTimestamp(OffsetDateTime offsetDateTime) {
         if (offsetDateTime == null)
             return null;
 
-        return Timestamp.valueOf(offsetDateTime.atZoneSameInstant(ZoneOffset.UTC).toLocalDateTime());
+        // the UTC wall clock time, read as a wall clock time of the default zone
+        var utcEpochSecond = offsetDateTime.toEpochSecond();
+        if (fixedOffset == null || utcEpochSecond < FAST_PATH_MIN_EPOCH_SECOND)
+            return CalendarDateConversions.offsetDateTimeToTimestamp(offsetDateTime);
+
+        var timestamp = new Timestamp((utcEpochSecond - fixedOffset.getTotalSeconds()) * 1000);
+        timestamp.setNanos(offsetDateTime.getNano());
+        return timestamp;
     }
 }
@@ -0,0 +1,64 @@
+package com.example.beerservice.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Times every call to the beer service, the mapper and the repository, so request latency can be split into
+ * database, mapping and the rest. Lookups that end in a 404 are counted as {@code beer.not.found}.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class BeerMetricsAspect {
+
+    static final String SERVICE_TIMER = "beer.service";
+    static final String MAPPER_TIMER = "beer.mapper";
+    static final String REPOSITORY_TIMER = "beer.repository";
+    static final String NOT_FOUND_COUNTER = "beer.not.found";
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("this(com.example.beerservice.service.BeerService)")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        try {
+            return time(SERVICE_TIMER, joinPoint);
+        } catch (ResponseStatusException e) {
+            if (e.getStatus() == HttpStatus.NOT_FOUND)
+                meterRegistry.counter(NOT_FOUND_COUNTER, "method", joinPoint.getSignature().getName()).increment();
+            throw e;
+        }
+    }
+
+    @Around("this(com.example.beerservice.domain.mapper.BeerMapper)")
+    public Object timeMapper(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(MAPPER_TIMER, joinPoint);
+    }
+
+    @Around("this(com.example.beerservice.repository.BeerRepository)")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(REPOSITORY_TIMER, joinPoint);
+    }
+
+    private Object time(String name, ProceedingJoinPoint joinPoint) throws Throwable {
+        var sample = Timer.start(meterRegistry);
+        var exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(meterRegistry.timer(name,
+                    "method", joinPoint.getSignature().getName(),
+                    "exception", exception));
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.beerservice.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.support.ServletRequestHandledEvent;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records how long the instance took from JVM start to ready, to warm and to its first answered request as
+ * {@code beer.startup.time} with a {@code phase} tag, in seconds, and logs them. Compare the numbers with and
+ * without the {@code fast-start} profile.
+ */
+@Slf4j
+@Component
+public class StartupMetrics {
+
+    static final String STARTUP_TIME_GAUGE = "beer.startup.time";
+
+    private final AtomicLong readyMillis = new AtomicLong(-1);
+    private final AtomicLong warmMillis = new AtomicLong(-1);
+    private final AtomicLong firstRequestMillis = new AtomicLong(-1);
+
+    public StartupMetrics(MeterRegistry meterRegistry) {
+        gauge(meterRegistry, "ready", readyMillis);
+        gauge(meterRegistry, "warm", warmMillis);
+        gauge(meterRegistry, "first-request", firstRequestMillis);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recordReady() {
+        record("ready", readyMillis);
+    }
+
+    public void recordWarm() {
+        record("warm", warmMillis);
+    }
+
+    @EventListener(ServletRequestHandledEvent.class)
+    public void recordFirstRequest() {
+        if (firstRequestMillis.get() < 0)
+            record("first request", firstRequestMillis);
+    }
+
+    private static void record(String phase, AtomicLong millis) {
+        var uptime = ManagementFactory.getRuntimeMXBean().getUptime();
+        if (millis.compareAndSet(-1, uptime))
+            log.info("Startup: {} {} ms after the JVM started", phase, uptime);
+    }
+
+    private static void gauge(MeterRegistry meterRegistry, String phase, AtomicLong millis) {
+        // NaN until the phase is reached
+        Gauge.builder(STARTUP_TIME_GAUGE, millis, value -> value.get() < 0 ? Double.NaN : value.get() / 1000.0)
+                .tag("phase", phase)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.beerservice.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.Ordered;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.BindException;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.servlet.ModelAndView;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.validation.ConstraintViolationException;
+
+/**
+ * Counts rejected requests as {@code beer.validation.failures}. It never resolves the exception itself,
+ * the regular resolvers still produce the response.
+ */
+@Component
+public class ValidationFailureMetricsResolver implements HandlerExceptionResolver, Ordered {
+
+    static final String VALIDATION_FAILURES_COUNTER = "beer.validation.failures";
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public ValidationFailureMetricsResolver(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public ModelAndView resolveException(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                         Exception e) {
+        if (isValidationFailure(e)) {
+            meterRegistry.ifAvailable(registry -> registry.counter(VALIDATION_FAILURES_COUNTER,
+                    "exception", e.getClass().getSimpleName()).increment());
+        }
+        return null;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    private static boolean isValidationFailure(Exception e) {
+        return e instanceof MethodArgumentNotValidException
+                || e instanceof ConstraintViolationException
+                || e instanceof BindException
+                || e instanceof MethodArgumentTypeMismatchException
+                || e instanceof HttpMessageNotReadableException;
+    }
+}
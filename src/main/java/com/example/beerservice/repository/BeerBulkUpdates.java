@@ -0,0 +1,30 @@
+package com.example.beerservice.repository;
+
+import com.example.beerservice.domain.Beer;
+
+import java.sql.Timestamp;
+import java.util.UUID;
+
+/**
+ * Single statement updates of beers that keep the second-level cache entries of all other beers.
+ * <p>
+ * A bulk JPQL update clears the whole Beer region and every cached query over beers, which the inventory fold
+ * would do every few seconds. These updates evict the updated beer only, see {@link BeerBulkUpdatesImpl}.
+ */
+public interface BeerBulkUpdates {
+
+    /**
+     * Overwrites the mutable fields of the beer with a single statement and bumps its version.
+     * If {@code version} is not null, the row is only updated while it is still at that version.
+     * {@code lastModifiedDate} comes from the JVM clock, like the {@code @UpdateTimestamp} of session updates.
+     *
+     * @return the number of updated rows, 0 if the beer does not exist or is at another version
+     */
+    int updateBeer(UUID id, Long version, Beer beer, Timestamp lastModifiedDate);
+
+    /**
+     * Adds folded inventory adjustments to the quantity on hand, without touching the version. The result is
+     * kept between 0 and {@link Integer#MAX_VALUE}, for decrements that raced past the stock check.
+     */
+    int addQuantityOnHand(UUID id, long delta, Timestamp adjustedDate);
+}
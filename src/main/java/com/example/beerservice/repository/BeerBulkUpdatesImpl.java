@@ -0,0 +1,106 @@
+package com.example.beerservice.repository;
+
+import com.example.beerservice.domain.Beer;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.type.BigDecimalType;
+import org.hibernate.type.IntegerType;
+import org.hibernate.type.LongType;
+import org.hibernate.type.StringType;
+import org.hibernate.type.TimestampType;
+import org.hibernate.type.UUIDBinaryType;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.sql.Timestamp;
+import java.util.UUID;
+
+/**
+ * Runs the updates as native statements that Hibernate does not relate to any entity, so it leaves the
+ * second-level cache alone. The updated beer is evicted right away and again once the transaction completed,
+ * in case a concurrent reader cached the old row in between. An update of the searchable fields also
+ * invalidates the cached queries over beers, like a session update would.
+ */
+public class BeerBulkUpdatesImpl implements BeerBulkUpdates {
+
+    // a query space no entity is mapped to, without one Hibernate would assume the statement touched them all
+    private static final String UNMAPPED_QUERY_SPACE = "beer_bulk_update";
+
+    private final EntityManager entityManager;
+
+    public BeerBulkUpdatesImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    @Transactional
+    public int updateBeer(UUID id, Long version, Beer beer, Timestamp lastModifiedDate) {
+        entityManager.flush();
+
+        var updated = nativeQuery("update beer set beer_name = :beerName, beer_style = :beerStyle, upc = :upc, " +
+                "price = :price, version = version + 1, last_modified_date = :lastModifiedDate " +
+                "where id = :id and (:version is null or version = :version)")
+                .setParameter("beerName", beer.getBeerName(), StringType.INSTANCE)
+                .setParameter("beerStyle", beer.getBeerStyle() == null ? null : beer.getBeerStyle().ordinal(), IntegerType.INSTANCE)
+                .setParameter("upc", beer.getUpc(), StringType.INSTANCE)
+                .setParameter("price", beer.getPrice(), BigDecimalType.INSTANCE)
+                .setParameter("lastModifiedDate", lastModifiedDate, TimestampType.INSTANCE)
+                .setParameter("id", id, UUIDBinaryType.INSTANCE)
+                .setParameter("version", version, LongType.INSTANCE)
+                .executeUpdate();
+
+        // a beer loaded before is stale now; the caller's other entities stay managed
+        detach(id);
+        if (updated > 0)
+            evict(id, true);
+        return updated;
+    }
+
+    @Override
+    @Transactional
+    public int addQuantityOnHand(UUID id, long delta, Timestamp adjustedDate) {
+        // summed as bigint, the parameter would otherwise be bound as the int column type
+        var updated = nativeQuery("update beer set quantity_on_hand = greatest(0, least(" + Integer.MAX_VALUE +
+                ", coalesce(cast(quantity_on_hand as bigint), 0) + cast(:delta as bigint))), " +
+                "inventory_modified_date = :adjustedDate where id = :id")
+                .setParameter("delta", delta, LongType.INSTANCE)
+                .setParameter("adjustedDate", adjustedDate, TimestampType.INSTANCE)
+                .setParameter("id", id, UUIDBinaryType.INSTANCE)
+                .executeUpdate();
+
+        // the quantity is not searchable, cached queries still hold the right beers
+        if (updated > 0)
+            evict(id, false);
+        return updated;
+    }
+
+    private NativeQuery<?> nativeQuery(String sql) {
+        return entityManager.createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(UNMAPPED_QUERY_SPACE);
+    }
+
+    private void detach(UUID id) {
+        var session = entityManager.unwrap(SessionImplementor.class);
+        var persister = session.getFactory().getMetamodel().entityPersister(Beer.class);
+        // looked up without loading it, detaching also drops a proxy of it
+        var loaded = session.getPersistenceContext().getEntity(session.generateEntityKey(id, persister));
+        if (loaded != null)
+            entityManager.detach(loaded);
+    }
+
+    private void evict(UUID id, boolean invalidateQueries) {
+        var session = entityManager.unwrap(SessionImplementor.class);
+        var cache = session.getFactory().getCache();
+        cache.evictEntityData(Beer.class, id);
+
+        // there are no timestamps without the query cache
+        var timestampsCache = invalidateQueries ? cache.getTimestampsCache() : null;
+        session.getActionQueue().registerProcess((success, completedSession) -> {
+            cache.evictEntityData(Beer.class, id);
+            if (timestampsCache != null)
+                timestampsCache.invalidate(
+                        session.getFactory().getMetamodel().entityPersister(Beer.class).getQuerySpaces(), completedSession);
+        });
+    }
+}
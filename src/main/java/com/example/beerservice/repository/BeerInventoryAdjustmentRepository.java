@@ -0,0 +1,34 @@
+package com.example.beerservice.repository;
+
+import com.example.beerservice.domain.BeerInventoryAdjustment;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The declared queries run in a read-only transaction of their own when called outside of one, the modifying ones
+ * in a read-write one.
+ */
+@Transactional(readOnly = true)
+public interface BeerInventoryAdjustmentRepository extends CrudRepository<BeerInventoryAdjustment, Long> {
+
+    /**
+     * Locks the oldest adjustments, so concurrent folds on other instances can not fold them a second time.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from BeerInventoryAdjustment a order by a.id")
+    List<BeerInventoryAdjustment> findOldestForUpdate(Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("delete from BeerInventoryAdjustment a where a.id in :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,49 @@
+package com.example.beerservice.repository;
+
+import com.example.beerservice.domain.BeerOutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.LockModeType;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The declared queries run in a read-only transaction of their own when called outside of one, the modifying ones
+ * in a read-write one.
+ */
+@Transactional(readOnly = true)
+public interface BeerOutboxEventRepository extends CrudRepository<BeerOutboxEvent, Long> {
+
+    /**
+     * Locks the oldest events without a position, so relays on other instances can not number them a second time.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select e from BeerOutboxEvent e where e.position is null order by e.id")
+    List<BeerOutboxEvent> findUnrelayedForUpdate(Pageable pageable);
+
+    @Query("select max(e.position) from BeerOutboxEvent e")
+    Long findMaxPosition();
+
+    @Query("select e from BeerOutboxEvent e where e.position is not null and e.publishedDate is null order by e.position")
+    List<BeerOutboxEvent> findUnpublished(Pageable pageable);
+
+    @Query("select e from BeerOutboxEvent e where e.position > :position order by e.position")
+    List<BeerOutboxEvent> findAllAfter(@Param("position") long position, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("update BeerOutboxEvent e set e.publishedDate = :publishedDate where e.id in :ids")
+    int markPublished(@Param("ids") Collection<Long> ids, @Param("publishedDate") Timestamp publishedDate);
+
+    @Modifying
+    @Transactional
+    @Query("delete from BeerOutboxEvent e where e.publishedDate < :before and e.position < :belowPosition")
+    int deletePublishedBefore(@Param("before") Timestamp before, @Param("belowPosition") long belowPosition);
+}
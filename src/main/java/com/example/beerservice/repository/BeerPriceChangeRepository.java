@@ -0,0 +1,46 @@
+package com.example.beerservice.repository;
+
+import com.example.beerservice.domain.BeerPriceChange;
+import com.example.beerservice.web.model.BeerStyle;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Times are epoch milliseconds. The per beer queries are range scans of the (beerId, effectiveFrom) index, the
+ * per style ones go through the style index of the beers and then the same index per beer.
+ * <p>
+ * The declared queries run in a read-only transaction of their own when called outside of one.
+ */
+@Transactional(readOnly = true)
+public interface BeerPriceChangeRepository extends CrudRepository<BeerPriceChange, Long> {
+
+    String OF_STYLE = "select p from BeerPriceChange p, Beer b where b.id = p.beerId and b.beerStyle = :beerStyle ";
+
+    // newest first, ties within the same millisecond broken by insertion order
+    @Query("select p from BeerPriceChange p where p.beerId = :beerId and p.effectiveFrom <= :at " +
+            "order by p.effectiveFrom desc, p.id desc")
+    List<BeerPriceChange> findLatestAt(@Param("beerId") UUID beerId, @Param("at") long at, Pageable pageable);
+
+    @Query("select p from BeerPriceChange p where p.beerId = :beerId and p.effectiveFrom > :from " +
+            "and p.effectiveFrom < :to order by p.effectiveFrom, p.id")
+    List<BeerPriceChange> findAllBetween(@Param("beerId") UUID beerId, @Param("from") long from, @Param("to") long to,
+                                         Pageable pageable);
+
+    /**
+     * The latest change at {@code at} of every beer of the style, a beer changed twice in that millisecond
+     * comes back twice.
+     */
+    @Query(OF_STYLE + "and p.effectiveFrom = (select max(q.effectiveFrom) from BeerPriceChange q " +
+            "where q.beerId = p.beerId and q.effectiveFrom <= :at) order by p.beerId, p.id")
+    List<BeerPriceChange> findLatestByStyleAt(@Param("beerStyle") BeerStyle beerStyle, @Param("at") long at);
+
+    @Query(OF_STYLE + "and p.effectiveFrom > :from and p.effectiveFrom < :to order by p.effectiveFrom, p.id")
+    List<BeerPriceChange> findAllByStyleBetween(@Param("beerStyle") BeerStyle beerStyle, @Param("from") long from,
+                                                @Param("to") long to, Pageable pageable);
+}
@@ -1,9 +1,111 @@
 package com.example.beerservice.repository;
 
 import com.example.beerservice.domain.Beer;
+import com.example.beerservice.web.model.BeerStyle;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
-public interface BeerRepository extends PagingAndSortingRepository<Beer, UUID> {
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+/**
+ * The declared queries run in a read-only transaction of their own when called outside of one, like the inherited
+ * finders. The bulk updates bring their own, see {@link BeerBulkUpdatesImpl}.
+ */
+@Transactional(readOnly = true)
+public interface BeerRepository extends PagingAndSortingRepository<Beer, UUID>, BeerBulkUpdates {
+
+    String FILTER = "(:beerName is null or b.beerName = :beerName) and (:beerStyle is null or b.beerStyle = :beerStyle)";
+
+    String STOCK_LEVEL = "select new com.example.beerservice.repository.BeerStockLevel(b.id, b.beerName, " +
+            "b.minOnHand, b.quantityToBrew, b.quantityOnHand, " +
+            "(select sum(a.delta) from BeerInventoryAdjustment a where a.beerId = b.id)) from Beer b ";
+
+    // rows of the beer, the sum and the newest creation time of its pending adjustments, see BeerWithInventory#fromRow.
+    // Not a select new: Hibernate selects only the id of an entity passed to a constructor, and loads each beer on its own
+    String WITH_INVENTORY = "select b, " +
+            "(select sum(a.delta) from BeerInventoryAdjustment a where a.beerId = b.id), " +
+            "(select max(a.createdDate) from BeerInventoryAdjustment a where a.beerId = b.id) from Beer b ";
+
+    /**
+     * Only the ids of the page, the beers are read with {@link #findWithInventoryByIdIn(Collection)}. Spring Data
+     * takes the alias for the sort from the first {@code from} clause, which in {@link #WITH_INVENTORY} is one of the
+     * subqueries, so the sorted page can not select the beers with their inventory itself.
+     * <p>
+     * Also answered from the query cache with the l2cache profile, like the other lookups marked cacheable.
+     * The hints are ignored otherwise.
+     */
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    @Query(value = "select b.id from Beer b where " + FILTER,
+            countQuery = "select count(b) from Beer b where " + FILTER)
+    Page<UUID> findIdsByFilter(@Param("beerName") String beerName, @Param("beerStyle") BeerStyle beerStyle,
+                               Pageable pageable);
+
+    /**
+     * Reads a beer and its pending inventory adjustments with a single statement, so a concurrent fold is
+     * either seen completely or not at all. A list of at most one row, Spring Data takes an array return type
+     * for a collection.
+     */
+    @Query(WITH_INVENTORY + "where b.id = :id")
+    List<Object[]> findWithInventoryById(@Param("id") UUID id);
+
+    @Query(WITH_INVENTORY + "where b.id in :ids")
+    List<Object[]> findWithInventoryByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query(STOCK_LEVEL + "where b.id in :ids")
+    List<BeerStockLevel> findStockLevelsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    // keyset over the beers that have a minimum at all
+    @Query(STOCK_LEVEL + "where b.minOnHand is not null and (:after is null or b.id > :after) order by b.id")
+    List<BeerStockLevel> findStockLevelsAfter(@Param("after") UUID after, Pageable pageable);
+
+    // upc is unique, both lookups are served by its index
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    @Query(WITH_INVENTORY + "where b.upc = :upc")
+    List<Object[]> findWithInventoryByUpc(@Param("upc") String upc);
+
+    @Query(WITH_INVENTORY + "where b.upc in :upcs")
+    List<Object[]> findWithInventoryByUpcIn(@Param("upcs") Collection<String> upcs);
+
+    @Query("select b.upc from Beer b where b.upc in :upcs")
+    List<String> findUpcsByUpcIn(@Param("upcs") Collection<String> upcs);
+
+    // declared, the inherited count ignores query hints
+    @Override
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    @Query("select count(b) from Beer b")
+    long count();
+
+    // keyset queries return a plain list, so no count query is issued; the pageable only acts as limit
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    @Query(WITH_INVENTORY + "where " + FILTER + " order by b.id")
+    List<Object[]> findWithInventoryByFilterOrderById(@Param("beerName") String beerName,
+                                                      @Param("beerStyle") BeerStyle beerStyle,
+                                                      Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    @Query(WITH_INVENTORY + "where b.id > :after and " + FILTER + " order by b.id")
+    List<Object[]> findWithInventoryByFilterAfterId(@Param("beerName") String beerName,
+                                                    @Param("beerStyle") BeerStyle beerStyle,
+                                                    @Param("after") UUID after, Pageable pageable);
+
+    /**
+     * Streams all beers with their pending inventory adjustments through a server side cursor. Must be consumed
+     * inside a transaction and closed afterwards.
+     */
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READONLY, value = "true")})
+    @Query(WITH_INVENTORY + "order by b.id")
+    Stream<Object[]> streamWithInventoryByOrderById();
 }
@@ -0,0 +1,29 @@
+package com.example.beerservice.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * The brewing relevant fields of a beer, with its pending inventory adjustments.
+ */
+@Getter
+@AllArgsConstructor
+public class BeerStockLevel {
+
+    private final UUID id;
+    private final String beerName;
+    private final Integer minOnHand;
+    private final Integer quantityToBrew;
+    private final Integer foldedQuantityOnHand;
+    private final Long pendingDelta;
+
+    public long getQuantityOnHand() {
+        return (foldedQuantityOnHand == null ? 0 : foldedQuantityOnHand) + (pendingDelta == null ? 0 : pendingDelta);
+    }
+
+    public boolean isBelowMinOnHand() {
+        return minOnHand != null && getQuantityOnHand() < minOnHand;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.beerservice.repository;
+
+import com.example.beerservice.domain.Beer;
+import lombok.Getter;
+
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * A beer together with the sum and the newest creation time of its not yet folded inventory adjustments,
+ * both null if there are none.
+ */
+@Getter
+public class BeerWithInventory {
+
+    private final Beer beer;
+    private final Long pendingDelta;
+    private final Timestamp lastAdjustedDate;
+
+    /**
+     * Takes a {@link Date}, the type Hibernate resolves {@code max()} of a timestamp to. The value it returns is a
+     * {@link Timestamp}.
+     */
+    public BeerWithInventory(Beer beer, Long pendingDelta, Date lastAdjustedDate) {
+        this.beer = beer;
+        this.pendingDelta = pendingDelta;
+        this.lastAdjustedDate = lastAdjustedDate == null || lastAdjustedDate instanceof Timestamp
+                ? (Timestamp) lastAdjustedDate
+                : new Timestamp(lastAdjustedDate.getTime());
+    }
+
+    /**
+     * @param row a row of {@link BeerRepository#WITH_INVENTORY}
+     */
+    public static BeerWithInventory fromRow(Object[] row) {
+        return new BeerWithInventory((Beer) row[0], (Long) row[1], (Date) row[2]);
+    }
+
+    public static List<BeerWithInventory> fromRows(List<Object[]> rows) {
+        return rows.stream().map(BeerWithInventory::fromRow).collect(Collectors.toList());
+    }
+}
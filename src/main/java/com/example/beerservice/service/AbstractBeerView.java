@@ -0,0 +1,98 @@
+package com.example.beerservice.service;
+
+import com.example.beerservice.web.model.BeerDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An in-memory view of all beers, built from all beers during the startup warmup and updated from committed
+ * {@link BeerChangedEvent}s.
+ * <p>
+ * The beers created, updated or deleted by a transaction are collected while it runs and read again with a
+ * single {@link BeerService#loadByIds} once it committed, so a batch of changes costs one lookup per chunk. That
+ * skips the {@link BeerDtoCache}: its invalidations run after commit as well, and those registered after the
+ * first change of the transaction run after this refresh. Views don't hold the quantity on hand, inventory
+ * adjustments are ignored.
+ * <p>
+ * Public, the {@code @EventListener} is not detected on the bridge methods the compiler adds to subclasses of a
+ * package-private class.
+ */
+@Slf4j
+public abstract class AbstractBeerView implements WarmupTask {
+
+    private final BeerService beerService;
+
+    // deletions seen while the initial build runs, its cursor may still return those beers
+    private final Set<UUID> deletedDuringBuild = ConcurrentHashMap.newKeySet();
+    private volatile boolean building = true;
+
+    protected AbstractBeerView(BeerService beerService) {
+        this.beerService = beerService;
+    }
+
+    protected abstract void put(BeerDto beerDto);
+
+    protected abstract void remove(UUID beerId);
+
+    @Override
+    public void warmUp() {
+        var start = System.nanoTime();
+        beerService.streamBeers(this::put);
+
+        building = false;
+        deletedDuringBuild.forEach(this::remove);
+        deletedDuringBuild.clear();
+
+        log.info("Built {} in {} ms", getClass().getSimpleName(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @EventListener
+    public void onBeerChanged(BeerChangedEvent event) {
+        if (event.getType() == BeerChangeType.INVENTORY_ADJUSTED)
+            return;
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            refresh(List.of(event.getBeerId()));
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        var changed = (Set<UUID>) TransactionSynchronizationManager.getResource(this);
+        if (changed == null) {
+            var beerIds = new LinkedHashSet<UUID>();
+            TransactionSynchronizationManager.bindResource(this, beerIds);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    refresh(beerIds);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(AbstractBeerView.this);
+                }
+            });
+            changed = beerIds;
+        }
+        changed.add(event.getBeerId());
+    }
+
+    private void refresh(Collection<UUID> beerIds) {
+        var result = beerService.loadByIds(beerIds);
+        result.getFound().values().forEach(this::put);
+        for (var beerId : result.getMissing()) {
+            if (building)
+                deletedDuringBuild.add(beerId);
+            remove(beerId);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.beerservice.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Fills the dto and json caches with the first {@code beer.warmup.cache-size} beers, so the first requests after
+ * a deployment don't all miss. Runs last, after the seed data is loaded.
+ */
+@Slf4j
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class BeerCacheWarmer implements WarmupTask {
+
+    static final int PAGE_SIZE = 500;
+
+    private final BeerService beerService;
+    private final int cacheSize;
+
+    public BeerCacheWarmer(BeerService beerService,
+                           @Value("${beer.warmup.cache-size:1000}") int cacheSize) {
+        this.beerService = beerService;
+        this.cacheSize = cacheSize;
+    }
+
+    @Override
+    public void warmUp() {
+        int warmed = 0;
+        UUID after = null;
+        while (warmed < cacheSize) {
+            var page = beerService.listBeersAfter(null, null, after, Math.min(PAGE_SIZE, cacheSize - warmed));
+            for (var beerDto : page.getContent())
+                beerService.getSerializedById(beerDto.getId());
+            warmed += page.getSize();
+
+            after = page.getNextCursor();
+            if (after == null)
+                break;
+        }
+        log.info("Warmed the beer caches with {} beers", warmed);
+    }
+}
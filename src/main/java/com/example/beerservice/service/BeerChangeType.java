@@ -0,0 +1,5 @@
+package com.example.beerservice.service;
+
+public enum BeerChangeType {
+    CREATED, UPDATED, DELETED, INVENTORY_ADJUSTED
+}
@@ -0,0 +1,45 @@
+package com.example.beerservice.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Published by {@link BeerService} for every written beer, inside the writing transaction, where the outbox
+ * records it (see {@link BeerOutboxServiceImpl}). Listeners that act on committed data use
+ * {@code @TransactionalEventListener(fallbackExecution = true)}.
+ * <p>
+ * Creates and updates carry the price they wrote, and updates the price they replaced if the writer read the
+ * beer anyway, so listeners in the writing transaction don't have to read it again.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class BeerChangedEvent {
+
+    private final UUID beerId;
+    private final BeerChangeType type;
+    private final BigDecimal price;
+    private final BigDecimal previousPrice;
+    // false for single statement updates, which don't read the beer
+    private final boolean previousPriceKnown;
+
+    public BeerChangedEvent(UUID beerId, BeerChangeType type) {
+        this(beerId, type, null, null, false);
+    }
+
+    public static BeerChangedEvent created(UUID beerId, BigDecimal price) {
+        return new BeerChangedEvent(beerId, BeerChangeType.CREATED, price, null, true);
+    }
+
+    public static BeerChangedEvent updated(UUID beerId, BigDecimal previousPrice, BigDecimal price) {
+        return new BeerChangedEvent(beerId, BeerChangeType.UPDATED, price, previousPrice, true);
+    }
+
+    public static BeerChangedEvent updated(UUID beerId, BigDecimal price) {
+        return new BeerChangedEvent(beerId, BeerChangeType.UPDATED, price, null, false);
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.beerservice.service;
+
+import com.example.beerservice.web.model.BeerDto;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of mapped {@link BeerDto}s keyed by beer id.
+ * <p>
+ * Entries are only ever replaced by a dto with an equal or higher {@code version}, so a slow reader can not
+ * overwrite the result of a concurrent update. Writes and invalidations issued inside a transaction are
+ * applied after commit.
+ * <p>
+ * Concurrent misses for the same id share one load: the first caller loads on its own thread, the others wait
+ * for its result instead of querying the database as well. Beers that don't exist are remembered for
+ * {@code beer.cache.not-found-expire-after-write}, so lookups of an unknown id don't reach the database on every
+ * request either.
+ */
+@Component
+public class BeerDtoCache {
+
+    private final AsyncCache<UUID, BeerDto> cache;
+
+    // ids without a beer, kept briefly; removed when a beer with the id is cached
+    private final Cache<UUID, Boolean> notFound;
+
+    // upc -> id of hot beers; may be stale, callers check the upc of the dto they end up with
+    private final Cache<String, UUID> upcIndex;
+
+    public BeerDtoCache(@Value("${beer.cache.maximum-size:10000}") long maximumSize,
+                        @Value("${beer.cache.expire-after-write:10m}") Duration expireAfterWrite,
+                        @Value("${beer.cache.upc-maximum-size:10000}") long upcMaximumSize,
+                        @Value("${beer.cache.not-found-expire-after-write:2s}") Duration notFoundExpireAfterWrite,
+                        MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .buildAsync();
+        this.notFound = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(notFoundExpireAfterWrite)
+                .recordStats()
+                .build();
+        this.upcIndex = Caffeine.newBuilder()
+                .maximumSize(upcMaximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), "beers");
+        CaffeineCacheMetrics.monitor(meterRegistry, notFound, "beersNotFound");
+        CaffeineCacheMetrics.monitor(meterRegistry, upcIndex, "beerUpcs");
+    }
+
+    /**
+     * Returns the cached dto or computes it with the given loader, which returns {@code null} if there is no
+     * such beer. Callers that miss while a load for the same id is running wait for it and share its result or
+     * exception. An invalidation removes a running load right away, so a load that started before an update is
+     * never kept, and callers arriving after the update start a new one.
+     *
+     * @return the dto, or {@code null} if there is no beer with the id
+     */
+    public BeerDto get(UUID beerId, Function<UUID, BeerDto> loader) {
+        if (notFound.getIfPresent(beerId) != null)
+            return null;
+
+        var load = new CompletableFuture<BeerDto>();
+        var future = cache.get(beerId, (id, executor) -> load);
+        if (future != load)
+            return join(future);
+
+        // loaded on the caller's thread, inside its transaction if it has one
+        BeerDto beerDto;
+        try {
+            beerDto = loader.apply(beerId);
+        } catch (RuntimeException | Error e) {
+            // the failed load is removed from the cache, the waiting callers get the exception
+            load.completeExceptionally(e);
+            throw e;
+        }
+        if (beerDto == null)
+            notFound.put(beerId, Boolean.TRUE);
+        // a null result is removed from the cache as well
+        load.complete(beerDto);
+        return beerDto;
+    }
+
+    public BeerDto getIfPresent(UUID beerId) {
+        return completed(cache.getIfPresent(beerId));
+    }
+
+    public UUID getIdByUpc(String upc) {
+        return upcIndex.getIfPresent(upc);
+    }
+
+    public void putUpc(String upc, UUID beerId) {
+        upcIndex.put(upc, beerId);
+    }
+
+    // the service only fills the cache through get, writes evict instead; kept for seeding the cache in tests
+    void put(BeerDto beerDto) {
+        AfterCommit.run(() -> {
+            notFound.invalidate(beerDto.getId());
+            // replaces a running load too, the dto is at least as new as whatever it reads
+            cache.asMap().compute(beerDto.getId(), (id, cached) -> {
+                var current = completed(cached);
+                return current != null && isOlder(beerDto, current) ? cached : CompletableFuture.completedFuture(beerDto);
+            });
+        });
+    }
+
+    public void invalidate(UUID beerId) {
+        AfterCommit.run(() -> {
+            notFound.invalidate(beerId);
+            cache.asMap().remove(beerId);
+        });
+    }
+
+    private static boolean isOlder(BeerDto candidate, BeerDto cached) {
+        return candidate.getVersion() != null && cached.getVersion() != null
+                && candidate.getVersion() < cached.getVersion();
+    }
+
+    private static BeerDto completed(CompletableFuture<BeerDto> future) {
+        return future != null && future.isDone() && !future.isCompletedExceptionally() ? future.join() : null;
+    }
+
+    private static BeerDto join(CompletableFuture<BeerDto> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            if (e.getCause() instanceof Error)
+                throw (Error) e.getCause();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.beerservice.service;
+
+import com.example.beerservice.web.model.BeerEvent;
+
+import java.util.List;
+
+/**
+ * Receives the committed beer changes from the outbox relay, in position order. Every bean implementing it is
+ * called, a broker adapter only has to be added as one more bean.
+ * <p>
+ * Delivery is at least once: a batch is handed out again until every publisher took it, so publishers have to
+ * skip positions they have already seen.
+ */
+public interface BeerEventPublisher {
+
+    /**
+     * Throws if the events could not be taken, the relay then retries the batch on its next run.
+     */
+    void publish(List<BeerEvent> events);
+}
@@ -0,0 +1,209 @@
+package com.example.beerservice.service;
+
+import com.example.beerservice.web.model.BeerDto;
+import com.example.beerservice.web.model.BeerExportFormat;
+import com.example.beerservice.web.model.BeerStyle;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reads beers one record at a time from newline delimited JSON or CSV, the formats of the catalogue export.
+ * <p>
+ * A record that can't be parsed comes back with an error instead of ending the import. CSV columns are matched
+ * by the header, so an export can be imported as is: id, version and dates are ignored, the beers are created
+ * anew.
+ */
+class BeerImportReader implements Closeable {
+
+    // a stray quote must not read the rest of the file into one field
+    static final int MAX_RECORD_LENGTH = 64 * 1024;
+
+    private final BeerExportFormat format;
+    private final BufferedReader reader;
+    private final ObjectReader jsonReader;
+
+    private List<String> columns;
+    private long line;
+
+    BeerImportReader(BeerExportFormat format, ObjectMapper objectMapper, Reader reader) {
+        this.format = format;
+        this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        this.jsonReader = objectMapper.readerFor(BeerDto.class);
+    }
+
+    /**
+     * @return the next record, or {@code null} at the end of the file
+     */
+    Record next() throws IOException {
+        return format == BeerExportFormat.NDJSON ? nextJson() : nextCsv();
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private Record nextJson() throws IOException {
+        String text;
+        do {
+            text = readLine();
+            if (text == null)
+                return null;
+        } while (text.isBlank());
+
+        try {
+            return new Record(line, clearGenerated(jsonReader.readValue(text)), null);
+        } catch (JsonProcessingException e) {
+            return new Record(line, null, "Malformed JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private Record nextCsv() throws IOException {
+        if (columns == null) {
+            var header = readCsvFields();
+            if (header == null)
+                return null;
+            columns = new ArrayList<>(header.size());
+            header.forEach(column -> columns.add(column.strip()));
+        }
+
+        List<String> fields;
+        long start;
+        do {
+            start = line + 1;
+            fields = readCsvFields();
+            if (fields == null)
+                return null;
+        } while (fields.size() == 1 && fields.get(0).isBlank());
+
+        var beerDto = new BeerDto();
+        for (int i = 0; i < fields.size() && i < columns.size(); i++) {
+            var value = fields.get(i).isBlank() ? null : fields.get(i).strip();
+            try {
+                setCsvField(beerDto, columns.get(i), value);
+            } catch (IllegalArgumentException e) {
+                return new Record(start, beerDto, columns.get(i) + ": cannot parse '" + value + "'");
+            }
+        }
+        return new Record(start, beerDto, null);
+    }
+
+    private static void setCsvField(BeerDto beerDto, String column, String value) {
+        if (value == null)
+            return;
+
+        switch (column) {
+            case "beerName":
+                beerDto.setBeerName(value);
+                break;
+            case "beerStyle":
+                beerDto.setBeerStyle(BeerStyle.valueOf(value.toUpperCase(Locale.ROOT)));
+                break;
+            case "upc":
+                beerDto.setUpc(value);
+                break;
+            case "price":
+                beerDto.setPrice(new BigDecimal(value));
+                break;
+            case "quantityOnHand":
+                beerDto.setQuantityOnHand(Integer.valueOf(value));
+                break;
+            default:
+                // id, version, dates and unknown columns
+        }
+    }
+
+    /**
+     * Splits one CSV record, which spans several lines if a quoted field contains line breaks.
+     */
+    private List<String> readCsvFields() throws IOException {
+        var text = readLine();
+        if (text == null)
+            return null;
+
+        var fields = new ArrayList<String>();
+        var field = new StringBuilder();
+        var quoted = false;
+        var length = 0;
+        for (int i = 0; ; ) {
+            if (i == text.length()) {
+                if (!quoted) {
+                    fields.add(field.toString());
+                    return fields;
+                }
+
+                text = readLine();
+                if (text == null)
+                    throw new IOException("Unterminated quoted field at the end of the file");
+                field.append('\n');
+                i = 0;
+                continue;
+            }
+
+            if (++length > MAX_RECORD_LENGTH)
+                throw new IOException("Record at line " + line + " is longer than " + MAX_RECORD_LENGTH + " characters");
+
+            var c = text.charAt(i++);
+            if (quoted) {
+                if (c != '"')
+                    field.append(c);
+                else if (i < text.length() && text.charAt(i) == '"')
+                    field.append(text.charAt(i++));
+                else
+                    quoted = false;
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+    }
+
+    private String readLine() throws IOException {
+        var text = reader.readLine();
+        if (text == null)
+            return null;
+
+        if (line++ == 0 && text.startsWith("\uFEFF"))
+            text = text.substring(1);
+        return text;
+    }
+
+    private static BeerDto clearGenerated(BeerDto beerDto) {
+        if (beerDto != null) {
+            beerDto.setId(null);
+            beerDto.setVersion(null);
+            beerDto.setCreatedDate(null);
+            beerDto.setLastModifiedDate(null);
+        }
+        return beerDto;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    static class Record {
+        private final long line;
+        private final BeerDto beer;
+        // why the record can't be imported, null for a record to validate
+        private final String error;
+
+        String getUpc() {
+            return beer == null ? null : beer.getUpc();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.beerservice.service;
+
+import com.example.beerservice.web.model.BeerExportFormat;
+import com.example.beerservice.web.model.BeerImportJob;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.UUID;
+
+public interface BeerImportService {
+
+    /**
+     * Copies the content to a temporary file and imports it in the background, the returned job reports the
+     * progress. Imports run one after the other.
+     */
+    BeerImportJob importBeers(InputStream content, BeerExportFormat format) throws IOException;
+
+    /**
+     * Imports the file in the background, the file is left in place.
+     */
+    BeerImportJob importFile(Path file, BeerExportFormat format);
+
+    /**
+     * @return the current state of the job, 404 once it is no longer kept
+     */
+    BeerImportJob getJob(UUID jobId);
+}
@@ -0,0 +1,316 @@
+package com.example.beerservice.service;
+
+import com.example.beerservice.repository.BeerRepository;
+import com.example.beerservice.web.model.BeerBatchItemStatus;
+import com.example.beerservice.web.model.BeerExportFormat;
+import com.example.beerservice.web.model.BeerImportError;
+import com.example.beerservice.web.model.BeerImportJob;
+import com.example.beerservice.web.model.BeerImportStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.annotation.PreDestroy;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Imports catalogue files of any size with constant memory.
+ * <p>
+ * The import thread reads chunks of {@value #CHUNK_SIZE} records and hands them to a validation pool with one
+ * thread per core. A single write thread takes the validated chunks in file order and stores the valid records with
+ * {@link BeerService#saveNewBeers}, one transaction per chunk, so the later chunks are validated while the earlier
+ * ones are written. At most {@link #maxChunksInFlight} chunks are read ahead, so reading waits for the database
+ * instead of buffering the file. Upcs are deduplicated against the catalogue with one query per chunk. That also
+ * catches duplicates between chunks of the same file, because the earlier chunk is already written.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BeerImportServiceImpl implements BeerImportService {
+
+    // records per validation task and per transaction, a multiple of hibernate.jdbc.batch_size
+    static final int CHUNK_SIZE = 500;
+
+    static final int MAX_REPORTED_ERRORS = 100;
+
+    private static final int MAX_RETAINED_JOBS = 20;
+
+    private final BeerService beerService;
+    private final BeerRepository beerRepository;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    // one chunk per core being validated while another one is written
+    private final int maxChunksInFlight = Runtime.getRuntime().availableProcessors() + 1;
+    private final ExecutorService importExecutor = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("beer-import-"));
+    private final ExecutorService validationExecutor = Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(), new CustomizableThreadFactory("beer-import-validation-"));
+    private final ExecutorService writeExecutor = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("beer-import-write-"));
+    private final Map<UUID, ImportJob> jobs = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    @Override
+    public BeerImportJob importBeers(InputStream content, BeerExportFormat format) throws IOException {
+        var file = Files.createTempFile("beer-import-", "." + format.getFileExtension());
+        try {
+            Files.copy(content, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return start(file, format, true);
+    }
+
+    @Override
+    public BeerImportJob importFile(Path file, BeerExportFormat format) {
+        return start(file, format, false);
+    }
+
+    @Override
+    public BeerImportJob getJob(UUID jobId) {
+        var job = jobs.get(jobId);
+        if (job == null)
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Could not find import with id: " + jobId);
+        return job.toDto();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        importExecutor.shutdownNow();
+        validationExecutor.shutdownNow();
+        writeExecutor.shutdownNow();
+    }
+
+    private BeerImportJob start(Path file, BeerExportFormat format, boolean deleteWhenDone) {
+        var job = new ImportJob(UUID.randomUUID(), format);
+        retain(job);
+
+        importExecutor.execute(() -> {
+            try (var reader = new BeerImportReader(format, objectMapper, Files.newBufferedReader(file, StandardCharsets.UTF_8))) {
+                run(job, reader);
+            } catch (IOException e) {
+                job.fail(e);
+            } finally {
+                if (deleteWhenDone)
+                    deleteQuietly(file);
+            }
+        });
+        return job.toDto();
+    }
+
+    void run(ImportJob job, BeerImportReader reader) {
+        job.start();
+        log.info("Importing {} beers, job {}", job.format, job.id);
+
+        var inFlight = new ArrayDeque<Future<?>>();
+        try {
+            List<BeerImportReader.Record> chunk;
+            while (!(chunk = readChunk(reader)).isEmpty()) {
+                job.read.addAndGet(chunk.size());
+                var toValidate = chunk;
+                var validated = validationExecutor.submit(() -> validate(toValidate));
+                // the write thread takes the chunks in submission order, waiting for each one's validation
+                inFlight.add(writeExecutor.submit(() -> {
+                    write(job, validated.get());
+                    return null;
+                }));
+
+                // back-pressure, the reader waits for the oldest chunk to be written
+                if (inFlight.size() >= maxChunksInFlight)
+                    inFlight.poll().get();
+            }
+            while (!inFlight.isEmpty())
+                inFlight.poll().get();
+
+            job.complete();
+            log.info("Import {} done, {} created, {} duplicates, {} invalid, {} failed",
+                    job.id, job.created, job.duplicates, job.invalid, job.failed);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            inFlight.forEach(future -> future.cancel(true));
+            job.fail(e);
+        } catch (ExecutionException | IOException | RuntimeException e) {
+            inFlight.forEach(future -> future.cancel(true));
+            job.fail(e);
+        }
+    }
+
+    private static List<BeerImportReader.Record> readChunk(BeerImportReader reader) throws IOException {
+        var chunk = new ArrayList<BeerImportReader.Record>(CHUNK_SIZE);
+        BeerImportReader.Record record;
+        while (chunk.size() < CHUNK_SIZE && (record = reader.next()) != null)
+            chunk.add(record);
+        return chunk;
+    }
+
+    private List<BeerImportReader.Record> validate(List<BeerImportReader.Record> chunk) {
+        var validated = new ArrayList<BeerImportReader.Record>(chunk.size());
+        for (var record : chunk) {
+            var error = record.getError() != null ? record.getError() : BeerValidation.violations(validator, record.getBeer());
+            validated.add(error == null ? record : new BeerImportReader.Record(record.getLine(), record.getBeer(), error));
+        }
+        return validated;
+    }
+
+    private void write(ImportJob job, List<BeerImportReader.Record> chunk) {
+        var unique = new ArrayList<BeerImportReader.Record>(chunk.size());
+        var upcs = new HashSet<String>();
+        for (var record : chunk) {
+            if (record.getError() != null) {
+                job.invalid.incrementAndGet();
+                job.report(record, record.getError());
+            } else if (!upcs.add(record.getUpc())) {
+                job.duplicates.incrementAndGet();
+            } else {
+                unique.add(record);
+            }
+        }
+        if (unique.isEmpty())
+            return;
+
+        var existing = new HashSet<>(beerRepository.findUpcsByUpcIn(upcs));
+        var records = unique.stream()
+                .filter(record -> !existing.contains(record.getUpc()))
+                .collect(Collectors.toList());
+        job.duplicates.addAndGet(unique.size() - records.size());
+        if (records.isEmpty())
+            return;
+
+        // only valid records are left, saveNewBeers checks them again but reports nothing new
+        var result = beerService.saveNewBeers(records.stream()
+                .map(BeerImportReader.Record::getBeer)
+                .collect(Collectors.toList()));
+        for (var item : result.getItems()) {
+            var record = records.get(item.getIndex());
+            if (item.getStatus() == BeerBatchItemStatus.CREATED) {
+                job.created.incrementAndGet();
+            } else if (item.getStatus() == BeerBatchItemStatus.INVALID) {
+                job.invalid.incrementAndGet();
+                job.report(record, item.getMessage());
+            } else {
+                job.failed.incrementAndGet();
+                job.report(record, item.getMessage());
+            }
+        }
+    }
+
+    private void retain(ImportJob job) {
+        synchronized (jobs) {
+            jobs.put(job.id, job);
+            // forget the oldest finished jobs, queued and running ones are kept
+            var iterator = jobs.values().iterator();
+            while (jobs.size() > MAX_RETAINED_JOBS && iterator.hasNext())
+                if (iterator.next().isFinished())
+                    iterator.remove();
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete import file {}", file, e);
+        }
+    }
+
+    /**
+     * Progress of one import. Counters are written by the import thread and read by any request thread.
+     */
+    static class ImportJob {
+        private final UUID id;
+        private final BeerExportFormat format;
+        private final OffsetDateTime createdDate = OffsetDateTime.now(ZoneOffset.UTC);
+
+        private volatile BeerImportStatus status = BeerImportStatus.QUEUED;
+        private volatile OffsetDateTime startedDate;
+        private volatile OffsetDateTime finishedDate;
+        private volatile String message;
+
+        private final AtomicLong read = new AtomicLong();
+        private final AtomicLong created = new AtomicLong();
+        private final AtomicLong duplicates = new AtomicLong();
+        private final AtomicLong invalid = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final List<BeerImportError> errors = Collections.synchronizedList(new ArrayList<>());
+
+        ImportJob(UUID id, BeerExportFormat format) {
+            this.id = id;
+            this.format = format;
+        }
+
+        void start() {
+            startedDate = OffsetDateTime.now(ZoneOffset.UTC);
+            status = BeerImportStatus.RUNNING;
+        }
+
+        void complete() {
+            finishedDate = OffsetDateTime.now(ZoneOffset.UTC);
+            status = BeerImportStatus.COMPLETED;
+        }
+
+        void fail(Exception e) {
+            log.warn("Import {} failed", id, e);
+            message = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            finishedDate = OffsetDateTime.now(ZoneOffset.UTC);
+            status = BeerImportStatus.FAILED;
+        }
+
+        boolean isFinished() {
+            return status == BeerImportStatus.COMPLETED || status == BeerImportStatus.FAILED;
+        }
+
+        void report(BeerImportReader.Record record, String error) {
+            // keep the first errors only, a broken file must not fill the heap with messages
+            if (errors.size() < MAX_REPORTED_ERRORS)
+                errors.add(BeerImportError.builder()
+                        .line(record.getLine())
+                        .upc(record.getUpc())
+                        .message(error)
+                        .build());
+        }
+
+        BeerImportJob toDto() {
+            return BeerImportJob.builder()
+                    .id(id)
+                    .status(status)
+                    .format(format)
+                    .read(read.get())
+                    .created(created.get())
+                    .duplicates(duplicates.get())
+                    .invalid(invalid.get())
+                    .failed(failed.get())
+                    .errors(List.copyOf(errors))
+                    .message(message)
+                    .createdDate(createdDate)
+                    .startedDate(startedDate)
+                    .finishedDate(finishedDate)
+                    .build();
+        }
+    }
+}
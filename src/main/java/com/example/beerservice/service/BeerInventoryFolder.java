@@ -0,0 +1,70 @@
+package com.example.beerservice.service;
+
+import com.example.beerservice.domain.BeerInventoryAdjustment;
+import com.example.beerservice.repository.BeerInventoryAdjustmentRepository;
+import com.example.beerservice.repository.BeerRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Periodically moves pending {@link BeerInventoryAdjustment}s into the quantity on hand of their beers.
+ * <p>
+ * Each chunk is added to the beers and deleted in one transaction, so readers that sum up quantity and pending
+ * adjustments in one statement always see the same total. Folding does not change that total, so no cached
+ * beer has to be invalidated.
+ */
+@Slf4j
+@Component
+// scheduled work, created eagerly with spring.main.lazy-initialization as well
+@Lazy(false)
+@RequiredArgsConstructor
+public class BeerInventoryFolder {
+
+    private static final int FOLD_CHUNK_SIZE = 1000;
+
+    private final BeerInventoryAdjustmentRepository adjustmentRepository;
+    private final BeerRepository beerRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Scheduled(fixedDelayString = "${beer.inventory.fold-interval:PT5S}")
+    public void foldAdjustments() {
+        int folded;
+        do {
+            folded = transactionTemplate.execute(status -> foldChunk());
+        } while (folded == FOLD_CHUNK_SIZE);
+    }
+
+    int foldChunk() {
+        var adjustments = adjustmentRepository.findOldestForUpdate(PageRequest.of(0, FOLD_CHUNK_SIZE));
+        if (adjustments.isEmpty())
+            return 0;
+
+        var deltas = new HashMap<UUID, Long>();
+        var adjustedDates = new HashMap<UUID, Timestamp>();
+        for (var adjustment : adjustments) {
+            deltas.merge(adjustment.getBeerId(), adjustment.getDelta(), Long::sum);
+            adjustedDates.merge(adjustment.getBeerId(), adjustment.getCreatedDate(),
+                    (a, b) -> a.after(b) ? a : b);
+        }
+
+        // adjustments of deleted beers update nothing and are simply dropped
+        deltas.forEach((beerId, delta) ->
+                beerRepository.addQuantityOnHand(beerId, delta, adjustedDates.get(beerId)));
+        adjustmentRepository.deleteAllByIdIn(adjustments.stream()
+                .map(BeerInventoryAdjustment::getId)
+                .collect(Collectors.toList()));
+
+        log.debug("Folded {} inventory adjustments of {} beers", adjustments.size(), deltas.size());
+        return adjustments.size();
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.beerservice.service;
+
+import com.example.beerservice.web.model.BeerDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.util.UUID;
+
+/**
+ * Bounded cache of the JSON bytes of beers, encoded with the application's {@link ObjectMapper}.
+ * <p>
+ * An entry is only served for a beer equal to the one it was encoded from (same version and quantity on hand),
+ * anything else is encoded again and replaces it. Invalidations free the entry of a changed or deleted beer after commit.
+ */
+@Component
+public class BeerJsonCache {
+
+    private final ObjectMapper objectMapper;
+    private final Cache<UUID, SerializedBeer> cache;
+
+    public BeerJsonCache(ObjectMapper objectMapper,
+                         @Value("${beer.cache.json-maximum-size:10000}") long maximumSize,
+                         MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "beerJson");
+    }
+
+    public SerializedBeer get(BeerDto beerDto) {
+        var cached = cache.getIfPresent(beerDto.getId());
+        if (cached != null && cached.getBeer().equals(beerDto))
+            return cached;
+
+        var serialized = new SerializedBeer(beerDto, encode(beerDto));
+        cache.asMap().merge(beerDto.getId(), serialized,
+                (current, fresh) -> isOlder(fresh.getBeer(), current.getBeer()) ? current : fresh);
+        return serialized;
+    }
+
+    public void invalidate(UUID beerId) {
+        AfterCommit.run(() -> cache.invalidate(beerId));
+    }
+
+    private byte[] encode(BeerDto beerDto) {
+        try {
+            return objectMapper.writeValueAsBytes(beerDto);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static boolean isOlder(BeerDto candidate, BeerDto cached) {
+        return candidate.getVersion() != null && cached.getVersion() != null
+                && candidate.getVersion() < cached.getVersion();
+    }
+}
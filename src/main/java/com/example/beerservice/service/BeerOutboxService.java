@@ -0,0 +1,19 @@
+package com.example.beerservice.service;
+
+import com.example.beerservice.web.model.BeerEvent;
+
+import java.util.List;
+
+public interface BeerOutboxService {
+
+    /**
+     * @return the relayed events after the position, oldest first. Published events are only kept for
+     * {@code beer.outbox.retention}, so this may start later than asked for.
+     */
+    List<BeerEvent> readAfter(long position, int limit);
+
+    /**
+     * @return the position of the newest relayed event, 0 if there is none yet
+     */
+    long lastPosition();
+}
@@ -0,0 +1,153 @@
+package com.example.beerservice.service;
+
+import com.example.beerservice.domain.BeerOutboxEvent;
+import com.example.beerservice.domain.mapper.DateMapper;
+import com.example.beerservice.repository.BeerOutboxEventRepository;
+import com.example.beerservice.web.model.BeerEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Transactional outbox of beer changes.
+ * <p>
+ * Every {@link BeerChangedEvent} is inserted into the outbox by the transaction that made the change, so an event
+ * exists exactly if its change was committed. The relay then numbers committed events in chunks, which gives the
+ * stream a gapless order that late commits can't slip into, and hands them to every {@link BeerEventPublisher}.
+ * Only after all publishers took a chunk is it marked published, so a failing publisher gets it again.
+ * <p>
+ * With several instances, a chunk is handed to the publishers of whichever instance relays it. Publishers that
+ * must see every event, like the event stream, read the outbox by position instead of relying on the hand-over.
+ */
+@Slf4j
+@Service
+// scheduled work, created eagerly with spring.main.lazy-initialization as well
+@Lazy(false)
+public class BeerOutboxServiceImpl implements BeerOutboxService {
+
+    static final int RELAY_CHUNK_SIZE = 500;
+
+    private final BeerOutboxEventRepository outboxRepository;
+    private final DateMapper dateMapper;
+    private final TransactionTemplate transactionTemplate;
+    // resolved per chunk, publishers such as the event stream read the outbox themselves
+    private final ObjectProvider<BeerEventPublisher> publishers;
+    private final Duration retention;
+
+    public BeerOutboxServiceImpl(BeerOutboxEventRepository outboxRepository,
+                                 DateMapper dateMapper,
+                                 TransactionTemplate transactionTemplate,
+                                 ObjectProvider<BeerEventPublisher> publishers,
+                                 @Value("${beer.outbox.retention:P7D}") Duration retention) {
+        this.outboxRepository = outboxRepository;
+        this.dateMapper = dateMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.publishers = publishers;
+        this.retention = retention;
+    }
+
+    /**
+     * Fails the change if there is no transaction to join, a change without its event is what the outbox is
+     * there to prevent.
+     */
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onBeerChanged(BeerChangedEvent event) {
+        outboxRepository.save(BeerOutboxEvent.builder()
+                .beerId(event.getBeerId())
+                .type(event.getType())
+                .build());
+    }
+
+    @Override
+    public List<BeerEvent> readAfter(long position, int limit) {
+        return outboxRepository.findAllAfter(position, PageRequest.of(0, limit)).stream()
+                .map(this::toBeerEvent)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public long lastPosition() {
+        var maxPosition = outboxRepository.findMaxPosition();
+        return maxPosition == null ? 0 : maxPosition;
+    }
+
+    @Scheduled(fixedDelayString = "${beer.outbox.relay-interval:PT0.2S}")
+    public void relay() {
+        int numbered;
+        int published;
+        do {
+            numbered = transactionTemplate.execute(status -> numberChunk());
+            published = publishChunk();
+        } while (numbered == RELAY_CHUNK_SIZE || published == RELAY_CHUNK_SIZE);
+    }
+
+    @Scheduled(fixedDelayString = "${beer.outbox.purge-interval:PT1H}")
+    public void purgePublished() {
+        var maxPosition = outboxRepository.findMaxPosition();
+        if (maxPosition == null)
+            return;
+
+        // the newest event stays, numbering would start over at 1 without it
+        var before = Timestamp.from(Instant.now().minus(retention));
+        int deleted = transactionTemplate.execute(status -> outboxRepository.deletePublishedBefore(before, maxPosition));
+        if (deleted > 0)
+            log.info("Purged {} beer events published before {}", deleted, before);
+    }
+
+    int numberChunk() {
+        var events = outboxRepository.findUnrelayedForUpdate(PageRequest.of(0, RELAY_CHUNK_SIZE));
+        if (events.isEmpty())
+            return 0;
+
+        var maxPosition = outboxRepository.findMaxPosition();
+        var next = maxPosition == null ? 1 : maxPosition + 1;
+        // written by dirty checking on commit, in JDBC batches
+        for (var event : events)
+            event.setPosition(next++);
+
+        return events.size();
+    }
+
+    int publishChunk() {
+        var events = outboxRepository.findUnpublished(PageRequest.of(0, RELAY_CHUNK_SIZE));
+        if (events.isEmpty())
+            return 0;
+
+        var beerEvents = events.stream().map(this::toBeerEvent).collect(Collectors.toList());
+        try {
+            publishers.orderedStream().forEach(publisher -> publisher.publish(beerEvents));
+        } catch (RuntimeException e) {
+            log.warn("Publishing {} beer events failed, retrying on the next run", beerEvents.size(), e);
+            return 0;
+        }
+
+        var publishedDate = new Timestamp(System.currentTimeMillis());
+        transactionTemplate.execute(status -> outboxRepository.markPublished(
+                events.stream().map(BeerOutboxEvent::getId).collect(Collectors.toList()), publishedDate));
+        return events.size();
+    }
+
+    private BeerEvent toBeerEvent(BeerOutboxEvent event) {
+        return BeerEvent.builder()
+                .position(event.getPosition())
+                .beerId(event.getBeerId())
+                .type(event.getType().name())
+                .occurredDate(dateMapper.timestampToOffsetDateTime(event.getCreatedDate()))
+                .build();
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.beerservice.service;
+
+import com.example.beerservice.web.model.BeerPricePoint;
+import com.example.beerservice.web.model.BeerStyle;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface BeerPriceHistoryService {
+
+    /**
+     * @return the price the beer had at the given time, 404 if it had none yet
+     */
+    BeerPricePoint getPriceAt(UUID beerId, OffsetDateTime at);
+
+    /**
+     * @return the price in effect at {@code from}, if any, followed by every change before {@code to}
+     */
+    List<BeerPricePoint> getPriceHistory(UUID beerId, OffsetDateTime from, OffsetDateTime to);
+
+    /**
+     * @return the price every beer that is now of the style had at the given time, in no particular order
+     */
+    List<BeerPricePoint> getStylePricesAt(BeerStyle beerStyle, OffsetDateTime at);
+
+    /**
+     * @return every price change of the beers that are now of the style, from {@code from} until before
+     * {@code to}, oldest first
+     */
+    List<BeerPricePoint> getStylePriceHistory(BeerStyle beerStyle, OffsetDateTime from, OffsetDateTime to);
+}
@@ -0,0 +1,140 @@
+package com.example.beerservice.service;
+
+import com.example.beerservice.domain.BeerPriceChange;
+import com.example.beerservice.domain.PriceCents;
+import com.example.beerservice.repository.BeerPriceChangeRepository;
+import com.example.beerservice.web.model.BeerPricePoint;
+import com.example.beerservice.web.model.BeerStyle;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Appends a {@link BeerPriceChange} whenever a beer is created with a price or updated to another price, in the
+ * transaction of the change, and answers as-of and range queries from them. Every path that creates or updates
+ * beers publishes a {@link BeerChangedEvent}, so none of them has to know about the history. The prices come with
+ * the event, batch writes are not interrupted by reads.
+ */
+@Service
+@RequiredArgsConstructor
+public class BeerPriceHistoryServiceImpl implements BeerPriceHistoryService {
+
+    // points per range query, a longer range has to be asked for in parts
+    static final int MAX_HISTORY_SIZE = 10_000;
+
+    private static final PageRequest LATEST = PageRequest.of(0, 1);
+
+    private final BeerPriceChangeRepository priceChangeRepository;
+
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onBeerChanged(BeerChangedEvent event) {
+        if (event.getType() != BeerChangeType.CREATED && event.getType() != BeerChangeType.UPDATED)
+            return;
+        if (event.getPrice() == null)
+            return;
+
+        var priceCents = PriceCents.of(event.getPrice());
+        if (event.getType() == BeerChangeType.UPDATED && isUnchanged(event, priceCents))
+            return;
+
+        priceChangeRepository.save(BeerPriceChange.builder()
+                .beerId(event.getBeerId())
+                .priceCents(priceCents)
+                .effectiveFrom(System.currentTimeMillis())
+                .build());
+    }
+
+    private boolean isUnchanged(BeerChangedEvent event, long priceCents) {
+        if (event.isPreviousPriceKnown())
+            return event.getPreviousPrice() != null && PriceCents.of(event.getPreviousPrice()) == priceCents;
+
+        // a single statement update did not read the beer, the latest change holds its previous price
+        var latest = priceChangeRepository.findLatestAt(event.getBeerId(), Long.MAX_VALUE, LATEST);
+        return !latest.isEmpty() && latest.get(0).getPriceCents() == priceCents;
+    }
+
+    @Override
+    public BeerPricePoint getPriceAt(UUID beerId, OffsetDateTime at) {
+        return priceChangeRepository.findLatestAt(beerId, toEpochMilli(at), LATEST).stream()
+                .findFirst()
+                .map(this::toPricePoint)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+                        "Could not find a price of beer " + beerId + " at " + at));
+    }
+
+    @Override
+    public List<BeerPricePoint> getPriceHistory(UUID beerId, OffsetDateTime from, OffsetDateTime to) {
+        checkRange(from, to);
+
+        var history = new ArrayList<BeerPricePoint>();
+        priceChangeRepository.findLatestAt(beerId, toEpochMilli(from), LATEST)
+                .forEach(change -> history.add(toPricePoint(change)));
+        priceChangeRepository.findAllBetween(beerId, toEpochMilli(from), toEpochMilli(to), limit())
+                .forEach(change -> history.add(toPricePoint(change)));
+        return checkSize(history);
+    }
+
+    @Override
+    public List<BeerPricePoint> getStylePricesAt(BeerStyle beerStyle, OffsetDateTime at) {
+        // the last of several changes of a beer within the same millisecond wins
+        var latest = new LinkedHashMap<UUID, BeerPriceChange>();
+        priceChangeRepository.findLatestByStyleAt(beerStyle, toEpochMilli(at))
+                .forEach(change -> latest.put(change.getBeerId(), change));
+
+        return latest.values().stream().map(this::toPricePoint).collect(Collectors.toList());
+    }
+
+    @Override
+    public List<BeerPricePoint> getStylePriceHistory(BeerStyle beerStyle, OffsetDateTime from, OffsetDateTime to) {
+        checkRange(from, to);
+
+        return checkSize(priceChangeRepository.findAllByStyleBetween(beerStyle, toEpochMilli(from), toEpochMilli(to), limit())
+                .stream()
+                .map(this::toPricePoint)
+                .collect(Collectors.toList()));
+    }
+
+    private static void checkRange(OffsetDateTime from, OffsetDateTime to) {
+        if (!from.isBefore(to))
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from must be before to");
+    }
+
+    // one more than the maximum, to tell a full range from one that was cut off
+    private static PageRequest limit() {
+        return PageRequest.of(0, MAX_HISTORY_SIZE + 1);
+    }
+
+    private static List<BeerPricePoint> checkSize(List<BeerPricePoint> history) {
+        if (history.size() > MAX_HISTORY_SIZE)
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "More than " + MAX_HISTORY_SIZE + " price changes in the range, ask for a shorter one");
+        return history;
+    }
+
+    private static long toEpochMilli(OffsetDateTime dateTime) {
+        return dateTime.toInstant().toEpochMilli();
+    }
+
+    private BeerPricePoint toPricePoint(BeerPriceChange change) {
+        return BeerPricePoint.builder()
+                .beerId(change.getBeerId())
+                .price(PriceCents.toPrice(change.getPriceCents()))
+                .effectiveDate(OffsetDateTime.ofInstant(Instant.ofEpochMilli(change.getEffectiveFrom()), ZoneOffset.UTC))
+                .build();
+    }
+}
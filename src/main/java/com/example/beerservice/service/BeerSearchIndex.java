@@ -0,0 +1,167 @@
+package com.example.beerservice.service;
+
+import com.example.beerservice.web.model.BeerSearchHit;
+import com.example.beerservice.web.model.BeerSearchResult;
+import com.example.beerservice.web.model.BeerStyle;
+import lombok.AllArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over the tokens of beer names.
+ * <p>
+ * Every query token has to match the start of a token of the name ("mang bo" finds "Mango Bobs"). The sorted
+ * token map turns a prefix into a range scan, so a lookup costs one range per query token, no matter how many
+ * beers there are. Facet counts per style are taken over all matches before the style filter is applied.
+ */
+class BeerSearchIndex {
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Comparator<BeerSearchHit> BY_NAME = Comparator
+            .comparing(BeerSearchHit::getBeerName, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER))
+            .thenComparing(BeerSearchHit::getId);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, Set<UUID>> beersByToken = new TreeMap<>();
+    private final Map<UUID, Entry> entries = new HashMap<>();
+
+    /**
+     * Adds or replaces the beer, unless the index already holds a newer version of it.
+     */
+    void put(UUID id, Long version, String beerName, BeerStyle beerStyle) {
+        lock.writeLock().lock();
+        try {
+            var current = entries.get(id);
+            if (current != null) {
+                if (current.version != null && version != null && version < current.version)
+                    return;
+                unindex(id, current);
+            }
+
+            var entry = new Entry(new BeerSearchHit(id, beerName, beerStyle), version, tokens(beerName));
+            entries.put(id, entry);
+            for (var token : entry.tokens)
+                beersByToken.computeIfAbsent(token, t -> new HashSet<>()).add(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(UUID id) {
+        lock.writeLock().lock();
+        try {
+            var current = entries.remove(id);
+            if (current != null)
+                unindex(id, current);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    BeerSearchResult search(String query, BeerStyle beerStyle, int limit) {
+        var queryTokens = tokens(query);
+        if (queryTokens.isEmpty())
+            return BeerSearchResult.builder().beers(List.of()).styles(Map.of()).total(0).build();
+
+        var styles = new EnumMap<BeerStyle, Integer>(BeerStyle.class);
+        // max-heap by name, keeps the first `limit` hits without sorting all matches
+        var top = new PriorityQueue<BeerSearchHit>(limit + 1, BY_NAME.reversed());
+        var total = 0;
+
+        lock.readLock().lock();
+        try {
+            for (var id : matches(queryTokens)) {
+                var hit = entries.get(id).hit;
+                if (hit.getBeerStyle() != null)
+                    styles.merge(hit.getBeerStyle(), 1, Integer::sum);
+                if (beerStyle != null && beerStyle != hit.getBeerStyle())
+                    continue;
+
+                total++;
+                top.add(hit);
+                if (top.size() > limit)
+                    top.poll();
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        var beers = new ArrayList<>(top);
+        beers.sort(BY_NAME);
+        return BeerSearchResult.builder()
+                .beers(beers)
+                .styles(styles)
+                .total(total)
+                .build();
+    }
+
+    // must hold the read lock
+    private Set<UUID> matches(List<String> queryTokens) {
+        // start with the most selective token, the intersection can only shrink
+        var candidateSets = new ArrayList<Set<UUID>>(queryTokens.size());
+        for (var token : queryTokens) {
+            var ids = new HashSet<UUID>();
+            beersByToken.subMap(token, true, token + Character.MAX_VALUE, false).values().forEach(ids::addAll);
+            if (ids.isEmpty())
+                return Set.of();
+            candidateSets.add(ids);
+        }
+        candidateSets.sort(Comparator.comparingInt(Set::size));
+
+        var result = candidateSets.get(0);
+        for (var i = 1; i < candidateSets.size() && !result.isEmpty(); i++)
+            result.retainAll(candidateSets.get(i));
+        return result;
+    }
+
+    // must hold the write lock
+    private void unindex(UUID id, Entry entry) {
+        for (var token : entry.tokens) {
+            var ids = beersByToken.get(token);
+            if (ids != null && ids.remove(id) && ids.isEmpty())
+                beersByToken.remove(token);
+        }
+    }
+
+    static List<String> tokens(String text) {
+        if (text == null)
+            return List.of();
+
+        var tokens = new ArrayList<String>();
+        for (var token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT)))
+            if (!token.isEmpty() && !tokens.contains(token))
+                tokens.add(token);
+        return tokens;
+    }
+
+    @AllArgsConstructor
+    private static class Entry {
+        private final BeerSearchHit hit;
+        private final Long version;
+        private final List<String> tokens;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.beerservice.service;
+
+import com.example.beerservice.web.model.BeerSearchResult;
+import com.example.beerservice.web.model.BeerStyle;
+
+public interface BeerSearchService {
+
+    /**
+     * Finds beers whose name has a token starting with each token of the query.
+     *
+     * @param beerStyle only return beers of this style, null for all
+     */
+    BeerSearchResult search(String query, BeerStyle beerStyle, int limit);
+}
@@ -0,0 +1,37 @@
+package com.example.beerservice.service;
+
+import com.example.beerservice.web.model.BeerDto;
+import com.example.beerservice.web.model.BeerSearchResult;
+import com.example.beerservice.web.model.BeerStyle;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+/**
+ * Serves searches from a {@link BeerSearchIndex} that is built from all beers during the startup warmup and
+ * updated from committed {@link BeerChangedEvent}s.
+ */
+@Service
+public class BeerSearchServiceImpl extends AbstractBeerView implements BeerSearchService {
+
+    private final BeerSearchIndex index = new BeerSearchIndex();
+
+    public BeerSearchServiceImpl(BeerService beerService) {
+        super(beerService);
+    }
+
+    @Override
+    public BeerSearchResult search(String query, BeerStyle beerStyle, int limit) {
+        return index.search(query, beerStyle, limit);
+    }
+
+    @Override
+    protected void put(BeerDto beerDto) {
+        index.put(beerDto.getId(), beerDto.getVersion(), beerDto.getBeerName(), beerDto.getBeerStyle());
+    }
+
+    @Override
+    protected void remove(UUID beerId) {
+        index.remove(beerId);
+    }
+}
@@ -1,15 +1,67 @@
 package com.example.beerservice.service;
 
+import com.example.beerservice.web.model.BeerBatchResult;
+import com.example.beerservice.web.model.BeerCursorList;
 import com.example.beerservice.web.model.BeerDto;
+import com.example.beerservice.web.model.BeerList;
+import com.example.beerservice.web.model.BeerLookupResult;
+import com.example.beerservice.web.model.BeerStyle;
+import org.springframework.data.domain.PageRequest;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface BeerService {
+    BeerList listBeers(String beerName, BeerStyle beerStyle, PageRequest pageRequest);
+
+    BeerCursorList listBeersAfter(String beerName, BeerStyle beerStyle, UUID after, int pageSize);
+
     BeerDto getById(UUID beerId);
 
+    /**
+     * Like {@link #getById(UUID)} for many beers, served from the cache where possible and with one query per
+     * chunk of the others.
+     */
+    BeerLookupResult<UUID> getByIds(Collection<UUID> beerIds);
+
+    /**
+     * Like {@link #getByIds(Collection)}, but always read from the database. For callers that run after a commit
+     * and must not see the cached dtos the committed transaction is yet to evict.
+     */
+    BeerLookupResult<UUID> loadByIds(Collection<UUID> beerIds);
+
+    /**
+     * Like {@link #getById(UUID)}, plus the encoded JSON of the beer, cached per id and version.
+     */
+    SerializedBeer getSerializedById(UUID beerId);
+
+    BeerDto getByUpc(String upc);
+
+    BeerLookupResult<String> getByUpcs(Collection<String> upcs);
+
+    /**
+     * Passes every beer to the consumer one at a time, without holding the catalogue in memory.
+     */
+    void streamBeers(Consumer<BeerDto> consumer);
+
     BeerDto saveNewBeer(BeerDto beerDto);
 
     void updateBeer(UUID beerId, BeerDto beerDto);
 
+    /**
+     * Adds the (possibly negative) delta to the quantity on hand of the beer, without locking the beer.
+     * A decrement of more than is on hand, pending adjustments included, is rejected with 409.
+     */
+    void adjustQuantityOnHand(UUID beerId, int delta);
+
     void deleteById(UUID beerId);
+
+    BeerBatchResult saveNewBeers(List<BeerDto> beerDtos);
+
+    BeerBatchResult updateBeers(Map<UUID, BeerDto> beerDtos);
+
+    BeerBatchResult deleteByIds(List<UUID> beerIds);
 }
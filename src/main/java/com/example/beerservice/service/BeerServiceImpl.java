@@ -1,56 +1,532 @@
 package com.example.beerservice.service;
 
 import com.example.beerservice.domain.Beer;
+import com.example.beerservice.domain.BeerInventoryAdjustment;
 import com.example.beerservice.domain.mapper.BeerMapper;
+import com.example.beerservice.domain.mapper.DateMapper;
+import com.example.beerservice.repository.BeerInventoryAdjustmentRepository;
 import com.example.beerservice.repository.BeerRepository;
+import com.example.beerservice.repository.BeerWithInventory;
+import com.example.beerservice.web.model.BeerBatchItemResult;
+import com.example.beerservice.web.model.BeerBatchItemStatus;
+import com.example.beerservice.web.model.BeerBatchResult;
+import com.example.beerservice.web.model.BeerCursorList;
 import com.example.beerservice.web.model.BeerDto;
+import com.example.beerservice.web.model.BeerList;
+import com.example.beerservice.web.model.BeerLookupResult;
+import com.example.beerservice.web.model.BeerStyle;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.BeanUtils;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
+import javax.persistence.EntityManager;
+import javax.validation.Validator;
 import java.sql.Timestamp;
-import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class BeerServiceImpl implements BeerService {
 
+    // rows per transaction for the batch operations, a multiple of hibernate.jdbc.batch_size
+    private static final int BATCH_CHUNK_SIZE = 500;
+
+    // keys per IN list, well below the bind parameter limits of the common databases
+    private static final int LOOKUP_CHUNK_SIZE = 1000;
+
     private final BeerRepository beerRepository;
     private final BeerMapper beerMapper;
+    private final DateMapper dateMapper;
+    private final BeerInventoryAdjustmentRepository adjustmentRepository;
+    private final BeerDtoCache beerDtoCache;
+    private final BeerJsonCache beerJsonCache;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public BeerList listBeers(String beerName, BeerStyle beerStyle, PageRequest pageRequest) {
+        var page = beerRepository.findIdsByFilter(beerName, beerStyle, pageRequest);
+
+        // the beers with their pending adjustments in one statement, like getByIds; deleted meanwhile, they are left out
+        var found = new HashMap<UUID, BeerDto>(page.getNumberOfElements());
+        loadInto(found, page.getContent());
+
+        return new BeerList(page.getContent().stream().map(found::get).filter(Objects::nonNull).collect(Collectors.toList()),
+                page.getPageable(), page.getTotalElements());
+    }
+
+    @Override
+    public BeerCursorList listBeersAfter(String beerName, BeerStyle beerStyle, UUID after, int pageSize) {
+        // fetch one extra row to find out whether there is a next page without counting
+        var limit = PageRequest.of(0, pageSize + 1);
+        var beers = BeerWithInventory.fromRows(after == null
+                ? beerRepository.findWithInventoryByFilterOrderById(beerName, beerStyle, limit)
+                : beerRepository.findWithInventoryByFilterAfterId(beerName, beerStyle, after, limit));
+
+        var hasNext = beers.size() > pageSize;
+        if (hasNext)
+            beers = beers.subList(0, pageSize);
+
+        return BeerCursorList.builder()
+                .content(beers.stream().map(this::toBeerDto).collect(Collectors.toList()))
+                .size(beers.size())
+                .nextCursor(hasNext ? beers.get(beers.size() - 1).getBeer().getId() : null)
+                .build();
+    }
 
     @Override
     public BeerDto getById(UUID beerId) {
-        return beerRepository.findById(beerId).map(beerMapper::beerToBeerDto)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Could not find beer with id: " + beerId));
+        var beerDto = beerDtoCache.get(beerId, id -> findWithInventoryById(id).map(this::toBeerDto).orElse(null));
+        if (beerDto == null)
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Could not find beer with id: " + beerId);
+        return beerDto;
     }
 
     @Override
+    public BeerLookupResult<UUID> getByIds(Collection<UUID> beerIds) {
+        var found = new LinkedHashMap<UUID, BeerDto>(beerIds.size());
+        var toLoad = new LinkedHashSet<UUID>();
+        for (var beerId : beerIds) {
+            var cached = beerDtoCache.getIfPresent(beerId);
+            if (cached != null)
+                found.put(beerId, cached);
+            else
+                toLoad.add(beerId);
+        }
+
+        // the loaded beers are not cached, an update committed meanwhile could not evict them like it evicts
+        // a running getById load
+        loadInto(found, toLoad);
+
+        return lookupResult(beerIds, found);
+    }
+
+    @Override
+    public BeerLookupResult<UUID> loadByIds(Collection<UUID> beerIds) {
+        var found = new LinkedHashMap<UUID, BeerDto>(beerIds.size());
+        loadInto(found, new LinkedHashSet<>(beerIds));
+
+        return lookupResult(beerIds, found);
+    }
+
+    private void loadInto(Map<UUID, BeerDto> found, Collection<UUID> beerIds) {
+        var ids = List.copyOf(beerIds);
+        for (int from = 0; from < ids.size(); from += LOOKUP_CHUNK_SIZE) {
+            var chunk = ids.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, ids.size()));
+            for (var beerWithInventory : BeerWithInventory.fromRows(beerRepository.findWithInventoryByIdIn(chunk)))
+                found.put(beerWithInventory.getBeer().getId(), toBeerDto(beerWithInventory));
+        }
+    }
+
+    private static BeerLookupResult<UUID> lookupResult(Collection<UUID> beerIds, Map<UUID, BeerDto> found) {
+        return BeerLookupResult.<UUID>builder()
+                .found(found)
+                .missing(beerIds.stream().filter(beerId -> !found.containsKey(beerId)).distinct().collect(Collectors.toList()))
+                .build();
+    }
+
+    private Optional<BeerWithInventory> findWithInventoryById(UUID beerId) {
+        return beerRepository.findWithInventoryById(beerId).stream().findFirst().map(BeerWithInventory::fromRow);
+    }
+
+    /**
+     * Maps the beer with its pending inventory adjustments applied. Those also count as a modification, so
+     * conditional requests notice a changed quantity.
+     */
+    private BeerDto toBeerDto(BeerWithInventory beerWithInventory) {
+        var beer = beerWithInventory.getBeer();
+        var beerDto = beerMapper.beerToBeerDto(beer);
+
+        if (beerWithInventory.getPendingDelta() != null)
+            beerDto.setQuantityOnHand(quantityOnHand(beerWithInventory));
+
+        var lastModified = latest(latest(beer.getLastModifiedDate(), beer.getInventoryModifiedDate()),
+                beerWithInventory.getLastAdjustedDate());
+        if (lastModified != beer.getLastModifiedDate())
+            beerDto.setLastModifiedDate(dateMapper.timestampToOffsetDateTime(lastModified));
+
+        return beerDto;
+    }
+
+    /**
+     * The folded quantity plus the pending adjustments, kept in the range the fold keeps the quantity in.
+     */
+    private static int quantityOnHand(BeerWithInventory beerWithInventory) {
+        var folded = beerWithInventory.getBeer().getQuantityOnHand();
+        var pending = beerWithInventory.getPendingDelta();
+        long total = (folded == null ? 0L : folded) + (pending == null ? 0L : pending);
+        return (int) Math.max(0, Math.min(Integer.MAX_VALUE, total));
+    }
+
+    @Override
+    public SerializedBeer getSerializedById(UUID beerId) {
+        return beerJsonCache.get(getById(beerId));
+    }
+
+    @Override
+    public BeerDto getByUpc(String upc) {
+        // a hot upc resolves through the id cache, so it costs at most one primary key lookup
+        var beerId = beerDtoCache.getIdByUpc(upc);
+        if (beerId != null) {
+            try {
+                var beerDto = getById(beerId);
+                if (upc.equals(beerDto.getUpc()))
+                    return beerDto;
+            } catch (ResponseStatusException e) {
+                if (e.getStatus() != HttpStatus.NOT_FOUND)
+                    throw e;
+            }
+        }
+
+        // one statement with the pending adjustments; not cached, like the beers loaded by getByIds
+        var beerWithInventory = beerRepository.findWithInventoryByUpc(upc).stream().findFirst().map(BeerWithInventory::fromRow)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Could not find beer with upc: " + upc));
+        beerDtoCache.putUpc(upc, beerWithInventory.getBeer().getId());
+        return toBeerDto(beerWithInventory);
+    }
+
+    @Override
+    public BeerLookupResult<String> getByUpcs(Collection<String> upcs) {
+        var found = new LinkedHashMap<String, BeerDto>(upcs.size());
+        var toLoad = new ArrayList<String>();
+        for (var upc : upcs) {
+            var cached = cachedByUpc(upc);
+            if (cached != null)
+                found.put(upc, cached);
+            else if (!found.containsKey(upc))
+                toLoad.add(upc);
+        }
+
+        for (int from = 0; from < toLoad.size(); from += LOOKUP_CHUNK_SIZE) {
+            var chunk = toLoad.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, toLoad.size()));
+            // with the pending adjustments, like getByIds and getByUpc
+            for (var beerWithInventory : BeerWithInventory.fromRows(beerRepository.findWithInventoryByUpcIn(chunk))) {
+                var beer = beerWithInventory.getBeer();
+                found.put(beer.getUpc(), toBeerDto(beerWithInventory));
+                beerDtoCache.putUpc(beer.getUpc(), beer.getId());
+            }
+        }
+
+        return BeerLookupResult.<String>builder()
+                .found(found)
+                .missing(upcs.stream().filter(upc -> !found.containsKey(upc)).distinct().collect(Collectors.toList()))
+                .build();
+    }
+
+    /**
+     * Serves a upc from the caches only. The upc index is not invalidated on updates, so the dto it leads to
+     * is only used if it still has that upc.
+     */
+    private BeerDto cachedByUpc(String upc) {
+        var beerId = beerDtoCache.getIdByUpc(upc);
+        if (beerId == null)
+            return null;
+
+        var beerDto = beerDtoCache.getIfPresent(beerId);
+        return beerDto != null && upc.equals(beerDto.getUpc()) ? beerDto : null;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamBeers(Consumer<BeerDto> consumer) {
+        try (Stream<Object[]> rows = beerRepository.streamWithInventoryByOrderById()) {
+            rows.map(BeerWithInventory::fromRow).forEach(beerWithInventory -> {
+                consumer.accept(toBeerDto(beerWithInventory));
+                // keep the persistence context from growing with the result set
+                entityManager.detach(beerWithInventory.getBeer());
+            });
+        }
+    }
+
+    @Override
+    @Transactional
     public BeerDto saveNewBeer(BeerDto beerDto) {
         var beer = beerMapper.beerDtoToBeer(beerDto);
         if (beer == null)
             throw new IllegalArgumentException("The given dto is null!");
 
         Beer savedBeer = beerRepository.save(beer);
+        publishChange(BeerChangedEvent.created(savedBeer.getId(), savedBeer.getPrice()));
         return beerMapper.beerToBeerDto(savedBeer);
     }
 
     @Override
+    @Transactional
     public void updateBeer(UUID beerId, BeerDto beerDto) {
-        var beer = beerRepository.findById(beerId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Could not find beer with id: " + beerId));
+        var beer = beerMapper.beerDtoToBeer(beerDto);
+        if (beer == null)
+            throw new IllegalArgumentException("The given dto is null!");
 
-        BeanUtils.copyProperties(beerDto, beer, "id", "version", "createdDate", "lastModifiedDate", "quantityOnHand");
+        // a null version updates unconditionally, otherwise only the expected version is overwritten
+        if (beerRepository.updateBeer(beerId, beerDto.getVersion(), beer, new Timestamp(System.currentTimeMillis())) == 0) {
+            if (beerRepository.existsById(beerId))
+                throw new ResponseStatusException(HttpStatus.CONFLICT,
+                        "Beer with id " + beerId + " is no longer at version " + beerDto.getVersion());
 
-        beer.setLastModifiedDate(Timestamp.from(Instant.now()));
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Could not find beer with id: " + beerId);
+        }
 
-        beerRepository.save(beer);
+        evict(beerId);
+        publishChange(BeerChangedEvent.updated(beerId, beer.getPrice()));
     }
 
     @Override
+    @Transactional
     public void deleteById(UUID beerId) {
         beerRepository.deleteById(beerId);
+        evict(beerId);
+        publishChange(new BeerChangedEvent(beerId, BeerChangeType.DELETED));
+    }
+
+    @Override
+    @Transactional
+    public void adjustQuantityOnHand(UUID beerId, int delta) {
+        if (delta < 0) {
+            // checked without a lock, the fold stops at 0 should concurrent decrements still overdraw the stock
+            var onHand = findWithInventoryById(beerId)
+                    .map(BeerServiceImpl::quantityOnHand)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Could not find beer with id: " + beerId));
+            if (onHand + delta < 0)
+                throw new ResponseStatusException(HttpStatus.CONFLICT,
+                        "Only " + onHand + " of beer " + beerId + " on hand, can not take " + -delta);
+        } else if (!beerRepository.existsById(beerId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Could not find beer with id: " + beerId);
+        }
+
+        // appended instead of updating the beer, so concurrent adjustments don't queue up on its row lock
+        adjustmentRepository.save(BeerInventoryAdjustment.builder()
+                .beerId(beerId)
+                .delta((long) delta)
+                .build());
+        evict(beerId);
+        publishChange(new BeerChangedEvent(beerId, BeerChangeType.INVENTORY_ADJUSTED));
+    }
+
+    @Override
+    public BeerBatchResult saveNewBeers(List<BeerDto> beerDtos) {
+        var results = new ArrayList<BeerBatchItemResult>(beerDtos.size());
+        var valid = new ArrayList<BatchItem<BeerDto>>(beerDtos.size());
+
+        for (int i = 0; i < beerDtos.size(); i++) {
+            var beerDto = beerDtos.get(i);
+            var violations = validate(beerDto);
+            if (violations == null)
+                valid.add(new BatchItem<>(i, null, beerDto));
+            else
+                results.add(itemResult(i, null, BeerBatchItemStatus.INVALID, violations));
+        }
+
+        writeInChunks(valid, this::insertChunk, results);
+
+        return batchResult(results);
+    }
+
+    @Override
+    public BeerBatchResult updateBeers(Map<UUID, BeerDto> beerDtos) {
+        var results = new ArrayList<BeerBatchItemResult>(beerDtos.size());
+        var valid = new ArrayList<BatchItem<BeerDto>>(beerDtos.size());
+
+        var index = 0;
+        for (var entry : beerDtos.entrySet()) {
+            var violations = validate(entry.getValue());
+            if (violations == null)
+                valid.add(new BatchItem<>(index, entry.getKey(), entry.getValue()));
+            else
+                results.add(itemResult(index, entry.getKey(), BeerBatchItemStatus.INVALID, violations));
+            index++;
+        }
+
+        writeInChunks(valid, this::updateChunk, results);
+
+        return batchResult(results);
+    }
+
+    @Override
+    public BeerBatchResult deleteByIds(List<UUID> beerIds) {
+        var results = new ArrayList<BeerBatchItemResult>(beerIds.size());
+        var items = new ArrayList<BatchItem<Void>>(beerIds.size());
+        for (int i = 0; i < beerIds.size(); i++)
+            items.add(new BatchItem<>(i, beerIds.get(i), null));
+
+        writeInChunks(items, this::deleteChunk, results);
+
+        return batchResult(results);
+    }
+
+    private List<BeerBatchItemResult> insertChunk(List<BatchItem<BeerDto>> chunk) {
+        // map inside the transaction so that a retried item never reuses an id assigned by a rolled back persist
+        var beers = chunk.stream().map(item -> beerMapper.beerDtoToBeer(item.getValue())).collect(Collectors.toList());
+        var saved = beerRepository.saveAll(beers);
+
+        var results = new ArrayList<BeerBatchItemResult>(chunk.size());
+        var i = 0;
+        for (Beer beer : saved) {
+            results.add(itemResult(chunk.get(i++).getIndex(), beer.getId(), BeerBatchItemStatus.CREATED, null));
+            publishChange(BeerChangedEvent.created(beer.getId(), beer.getPrice()));
+        }
+
+        return results;
+    }
+
+    private List<BeerBatchItemResult> updateChunk(List<BatchItem<BeerDto>> chunk) {
+        var beers = existingBeers(chunk);
+
+        var results = new ArrayList<BeerBatchItemResult>(chunk.size());
+        var toSave = new ArrayList<Beer>(chunk.size());
+        var changes = new ArrayList<BeerChangedEvent>(chunk.size());
+        for (var item : chunk) {
+            var beer = beers.get(item.getId());
+            if (beer == null) {
+                results.add(notFound(item));
+                continue;
+            }
+
+            var previousPrice = beer.getPrice();
+            beerMapper.updateBeerFromBeerDto(item.getValue(), beer);
+            toSave.add(beer);
+            changes.add(BeerChangedEvent.updated(beer.getId(), previousPrice, beer.getPrice()));
+            results.add(itemResult(item.getIndex(), item.getId(), BeerBatchItemStatus.UPDATED, null));
+        }
+
+        beerRepository.saveAll(toSave);
+        // versions are only incremented on flush, so drop the entries instead of refreshing them
+        changes.forEach(change -> {
+            evict(change.getBeerId());
+            publishChange(change);
+        });
+
+        return results;
+    }
+
+    private List<BeerBatchItemResult> deleteChunk(List<BatchItem<Void>> chunk) {
+        var beers = existingBeers(chunk);
+
+        var results = new ArrayList<BeerBatchItemResult>(chunk.size());
+        for (var item : chunk) {
+            if (beers.containsKey(item.getId())) {
+                results.add(itemResult(item.getIndex(), item.getId(), BeerBatchItemStatus.DELETED, null));
+                evict(item.getId());
+                publishChange(new BeerChangedEvent(item.getId(), BeerChangeType.DELETED));
+            } else {
+                results.add(notFound(item));
+            }
+        }
+
+        beerRepository.deleteAll(beers.values());
+
+        return results;
+    }
+
+    private Map<UUID, Beer> existingBeers(List<? extends BatchItem<?>> chunk) {
+        var ids = chunk.stream().map(BatchItem::getId).collect(Collectors.toList());
+
+        var beers = new HashMap<UUID, Beer>(chunk.size());
+        beerRepository.findAllById(ids).forEach(beer -> beers.put(beer.getId(), beer));
+        return beers;
+    }
+
+    /**
+     * Writes the items chunk by chunk, one transaction per chunk. If a chunk fails, its items are retried one
+     * transaction each, so a single bad row only fails itself.
+     */
+    private <T> void writeInChunks(List<BatchItem<T>> items, Function<List<BatchItem<T>>, List<BeerBatchItemResult>> writer,
+                                   List<BeerBatchItemResult> results) {
+        for (int from = 0; from < items.size(); from += BATCH_CHUNK_SIZE) {
+            var chunk = items.subList(from, Math.min(from + BATCH_CHUNK_SIZE, items.size()));
+            try {
+                results.addAll(transactionTemplate.execute(status -> writer.apply(chunk)));
+            } catch (RuntimeException chunkFailure) {
+                for (var item : chunk) {
+                    try {
+                        results.addAll(transactionTemplate.execute(status -> writer.apply(List.of(item))));
+                    } catch (RuntimeException itemFailure) {
+                        results.add(itemResult(item.getIndex(), item.getId(), BeerBatchItemStatus.FAILED,
+                                NestedExceptionUtils.getMostSpecificCause(itemFailure).getMessage()));
+                    }
+                }
+            }
+        }
+    }
+
+    private String validate(BeerDto beerDto) {
+        return BeerValidation.violations(validator, beerDto);
+    }
+
+    private void evict(UUID beerId) {
+        beerDtoCache.invalidate(beerId);
+        beerJsonCache.invalidate(beerId);
+    }
+
+    // listeners only see the change once (and if) the surrounding transaction commits, see BeerChangedEvent
+    private void publishChange(BeerChangedEvent event) {
+        eventPublisher.publishEvent(event);
+    }
+
+    private static Timestamp latest(Timestamp a, Timestamp b) {
+        if (a == null)
+            return b;
+        return b == null || !b.after(a) ? a : b;
+    }
+
+    private static BeerBatchItemResult notFound(BatchItem<?> item) {
+        return itemResult(item.getIndex(), item.getId(), BeerBatchItemStatus.NOT_FOUND,
+                "Could not find beer with id: " + item.getId());
+    }
+
+    private static BeerBatchItemResult itemResult(int index, UUID id, BeerBatchItemStatus status, String message) {
+        return BeerBatchItemResult.builder()
+                .index(index)
+                .id(id)
+                .status(status)
+                .message(message)
+                .build();
+    }
+
+    private static BeerBatchResult batchResult(List<BeerBatchItemResult> results) {
+        results.sort(Comparator.comparingInt(BeerBatchItemResult::getIndex));
+
+        var failed = (int) results.stream()
+                .filter(result -> result.getStatus() == BeerBatchItemStatus.INVALID
+                        || result.getStatus() == BeerBatchItemStatus.NOT_FOUND
+                        || result.getStatus() == BeerBatchItemStatus.FAILED)
+                .count();
+
+        return BeerBatchResult.builder()
+                .succeeded(results.size() - failed)
+                .failed(failed)
+                .items(results)
+                .build();
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class BatchItem<T> {
+        private final int index;
+        private final UUID id;
+        private final T value;
     }
 }
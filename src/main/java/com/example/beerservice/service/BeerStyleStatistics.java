@@ -0,0 +1,86 @@
+package com.example.beerservice.service;
+
+import com.example.beerservice.domain.PriceCents;
+import com.example.beerservice.web.model.BeerStyle;
+import com.example.beerservice.web.model.BeerStyleStats;
+import lombok.AllArgsConstructor;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Count and price sum per style, maintained incrementally.
+ * <p>
+ * The contribution of every beer is remembered, so an update or delete only has to subtract the old one and
+ * add the new one; reading the statistics never touches the beers.
+ */
+class BeerStyleStatistics {
+
+    private static final int STYLES = BeerStyle.values().length;
+
+    private final Map<UUID, Contribution> contributions = new HashMap<>();
+    private final long[] counts = new long[STYLES];
+    private final long[] pricedCounts = new long[STYLES];
+    private final long[] priceCentSums = new long[STYLES];
+
+    /**
+     * Adds or replaces the contribution of the beer, unless a newer version of it was already added.
+     */
+    synchronized void put(UUID id, Long version, BeerStyle beerStyle, BigDecimal price) {
+        var current = contributions.get(id);
+        if (current != null) {
+            if (current.version != null && version != null && version < current.version)
+                return;
+            apply(current, -1);
+        }
+
+        var contribution = new Contribution(version, beerStyle, price != null, PriceCents.of(price));
+        contributions.put(id, contribution);
+        apply(contribution, 1);
+    }
+
+    synchronized void remove(UUID id) {
+        var current = contributions.remove(id);
+        if (current != null)
+            apply(current, -1);
+    }
+
+    synchronized List<BeerStyleStats> snapshot() {
+        var stats = new ArrayList<BeerStyleStats>(STYLES);
+        for (var style : BeerStyle.values()) {
+            var i = style.ordinal();
+            stats.add(BeerStyleStats.builder()
+                    .beerStyle(style)
+                    .count(counts[i])
+                    .averagePrice(pricedCounts[i] == 0 ? null : PriceCents.toPrice(priceCentSums[i])
+                            .divide(BigDecimal.valueOf(pricedCounts[i]), 2, RoundingMode.HALF_UP))
+                    .build());
+        }
+        return stats;
+    }
+
+    private void apply(Contribution contribution, int sign) {
+        if (contribution.beerStyle == null)
+            return;
+
+        var i = contribution.beerStyle.ordinal();
+        counts[i] += sign;
+        if (contribution.priced) {
+            pricedCounts[i] += sign;
+            priceCentSums[i] += sign * contribution.priceCents;
+        }
+    }
+
+    @AllArgsConstructor
+    private static class Contribution {
+        private final Long version;
+        private final BeerStyle beerStyle;
+        private final boolean priced;
+        private final long priceCents;
+    }
+}
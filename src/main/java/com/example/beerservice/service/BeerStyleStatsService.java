@@ -0,0 +1,13 @@
+package com.example.beerservice.service;
+
+import com.example.beerservice.web.model.BeerStyleStats;
+
+import java.util.List;
+
+public interface BeerStyleStatsService {
+
+    /**
+     * @return count and average price of every style, in the declaration order of the styles
+     */
+    List<BeerStyleStats> getStyleStats();
+}
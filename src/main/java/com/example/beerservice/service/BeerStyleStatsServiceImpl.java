@@ -0,0 +1,37 @@
+package com.example.beerservice.service;
+
+import com.example.beerservice.web.model.BeerDto;
+import com.example.beerservice.web.model.BeerStyleStats;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Serves the style statistics from {@link BeerStyleStatistics}, filled from all beers during the startup warmup
+ * and updated from committed {@link BeerChangedEvent}s, like the search index.
+ */
+@Service
+public class BeerStyleStatsServiceImpl extends AbstractBeerView implements BeerStyleStatsService {
+
+    private final BeerStyleStatistics statistics = new BeerStyleStatistics();
+
+    public BeerStyleStatsServiceImpl(BeerService beerService) {
+        super(beerService);
+    }
+
+    @Override
+    public List<BeerStyleStats> getStyleStats() {
+        return statistics.snapshot();
+    }
+
+    @Override
+    protected void put(BeerDto beerDto) {
+        statistics.put(beerDto.getId(), beerDto.getVersion(), beerDto.getBeerStyle(), beerDto.getPrice());
+    }
+
+    @Override
+    protected void remove(UUID beerId) {
+        statistics.remove(beerId);
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.beerservice.service;
+
+import com.example.beerservice.web.model.BeerDto;
+
+import javax.validation.Validator;
+import java.util.stream.Collectors;
+
+/**
+ * The bean validation of a {@link BeerDto} as the single message the batch results and import errors report.
+ */
+final class BeerValidation {
+
+    private BeerValidation() {
+    }
+
+    /**
+     * @return the violations, sorted and comma separated, or {@code null} if the dto is valid
+     */
+    static String violations(Validator validator, BeerDto beerDto) {
+        if (beerDto == null)
+            return "The given dto is null!";
+
+        var violations = validator.validate(beerDto);
+        if (violations.isEmpty())
+            return null;
+
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.beerservice.service;
+
+import com.example.beerservice.web.model.BrewOrderDto;
+
+import java.util.List;
+
+public interface BrewOrderService {
+
+    /**
+     * @return the open brew orders, oldest first. An order stays open until its beer is back at its minimum.
+     */
+    List<BrewOrderDto> listOpenOrders();
+}
@@ -0,0 +1,125 @@
+package com.example.beerservice.service;
+
+import com.example.beerservice.repository.BeerRepository;
+import com.example.beerservice.repository.BeerStockLevel;
+import com.example.beerservice.web.model.BrewOrderDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps brew orders for beers whose quantity on hand dropped below their {@code minOnHand}.
+ * <p>
+ * Beers are only re-checked after a {@link BeerChangedEvent}: committed changes mark the beer dirty, and a
+ * scheduled run checks at most {@value #MAX_CHECKS_PER_RUN} dirty beers with one query per chunk. The whole
+ * catalogue is only scanned once, at startup, to pick up beers that were already low.
+ */
+@Slf4j
+@Service
+// scheduled work, created eagerly with spring.main.lazy-initialization as well
+@Lazy(false)
+@RequiredArgsConstructor
+public class BrewOrderServiceImpl implements BrewOrderService, WarmupTask {
+
+    private static final int CHECK_CHUNK_SIZE = 500;
+    private static final int MAX_CHECKS_PER_RUN = 10_000;
+
+    private final BeerRepository beerRepository;
+
+    private final Set<UUID> dirtyBeers = ConcurrentHashMap.newKeySet();
+    private final Map<UUID, BrewOrderDto> openOrders = new ConcurrentHashMap<>();
+
+    @Override
+    public List<BrewOrderDto> listOpenOrders() {
+        return openOrders.values().stream()
+                .sorted(Comparator.comparing(BrewOrderDto::getCreatedDate))
+                .collect(Collectors.toList());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBeerChanged(BeerChangedEvent event) {
+        dirtyBeers.add(event.getBeerId());
+    }
+
+    @Override
+    public void warmUp() {
+        checkAllBeers();
+    }
+
+    void checkAllBeers() {
+        var checked = 0;
+        UUID after = null;
+        List<BeerStockLevel> levels;
+        do {
+            levels = beerRepository.findStockLevelsAfter(after, PageRequest.of(0, CHECK_CHUNK_SIZE));
+            levels.forEach(this::apply);
+            checked += levels.size();
+            after = levels.isEmpty() ? null : levels.get(levels.size() - 1).getId();
+        } while (levels.size() == CHECK_CHUNK_SIZE);
+
+        log.info("Checked {} beers for brew orders, {} open", checked, openOrders.size());
+    }
+
+    @Scheduled(fixedDelayString = "${beer.brewing.check-interval:PT1S}")
+    public void checkDirtyBeers() {
+        for (var checked = 0; checked < MAX_CHECKS_PER_RUN; ) {
+            var chunk = takeDirty(Math.min(CHECK_CHUNK_SIZE, MAX_CHECKS_PER_RUN - checked));
+            if (chunk.isEmpty())
+                return;
+
+            var found = new HashSet<UUID>(chunk.size());
+            for (var level : beerRepository.findStockLevelsByIdIn(chunk)) {
+                apply(level);
+                found.add(level.getId());
+            }
+            // deleted beers don't need brewing anymore
+            chunk.stream().filter(id -> !found.contains(id)).forEach(openOrders::remove);
+
+            checked += chunk.size();
+        }
+    }
+
+    private List<UUID> takeDirty(int max) {
+        var chunk = new ArrayList<UUID>(max);
+        var iterator = dirtyBeers.iterator();
+        while (chunk.size() < max && iterator.hasNext()) {
+            chunk.add(iterator.next());
+            // a change marking the beer again from here on is picked up by the next run
+            iterator.remove();
+        }
+        return chunk;
+    }
+
+    private void apply(BeerStockLevel level) {
+        if (!level.isBelowMinOnHand() || level.getQuantityToBrew() == null || level.getQuantityToBrew() <= 0) {
+            openOrders.remove(level.getId());
+            return;
+        }
+
+        // one open order per beer, it is not raised again while the beer stays low
+        openOrders.computeIfAbsent(level.getId(), id -> BrewOrderDto.builder()
+                .beerId(id)
+                .beerName(level.getBeerName())
+                .quantityToBrew(level.getQuantityToBrew())
+                .quantityOnHand(level.getQuantityOnHand())
+                .minOnHand(level.getMinOnHand())
+                .createdDate(OffsetDateTime.now(ZoneOffset.UTC))
+                .build());
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.beerservice.service;
+
+import com.example.beerservice.web.model.BeerEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends the beer events to a newline delimited JSON file ({@code beer.outbox.file}), for consumers that tail
+ * a file and as the template of a broker adapter.
+ */
+@Component
+@ConditionalOnProperty("beer.outbox.file")
+public class FileBeerEventPublisher implements BeerEventPublisher {
+
+    private final ObjectMapper objectMapper;
+    private final Path file;
+
+    private long lastPosition;
+
+    public FileBeerEventPublisher(ObjectMapper objectMapper, @Value("${beer.outbox.file}") Path file) {
+        this.objectMapper = objectMapper;
+        this.file = file;
+    }
+
+    @Override
+    public synchronized void publish(List<BeerEvent> events) {
+        try (var writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (var event : events) {
+                // a batch retried after another publisher failed is already in the file
+                if (event.getPosition() <= lastPosition)
+                    continue;
+                writer.write(objectMapper.writeValueAsString(event));
+                writer.write('\n');
+                lastPosition = event.getPosition();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.beerservice.service;
+
+import com.example.beerservice.web.model.BeerDto;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A beer together with its encoded JSON representation, ready to be written to a response as is.
+ */
+@Getter
+@AllArgsConstructor
+public class SerializedBeer {
+
+    private final BeerDto beer;
+    private final byte[] json;
+}
@@ -0,0 +1,11 @@
+package com.example.beerservice.service;
+
+/**
+ * Startup work that has to be done before the instance reports ready, e.g. building an in-memory view of the
+ * beers. Every task runs once, in {@code @Order}, on a background thread after the application is ready and the
+ * seed data is loaded, see {@link com.example.beerservice.bootstrap.BeerWarmup}.
+ */
+public interface WarmupTask {
+
+    void warmUp();
+}
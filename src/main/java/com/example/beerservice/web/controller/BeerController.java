@@ -1,16 +1,41 @@
 package com.example.beerservice.web.controller;
 
+import com.example.beerservice.service.BeerSearchService;
 import com.example.beerservice.service.BeerService;
+import com.example.beerservice.service.BeerStyleStatsService;
+import com.example.beerservice.service.SerializedBeer;
+import com.example.beerservice.web.model.BeerBatchResult;
+import com.example.beerservice.web.model.BeerCursorList;
 import com.example.beerservice.web.model.BeerDto;
+import com.example.beerservice.web.model.BeerExportFormat;
+import com.example.beerservice.web.model.BeerList;
+import com.example.beerservice.web.model.BeerLookupResult;
+import com.example.beerservice.web.model.BeerSearchResult;
+import com.example.beerservice.web.model.BeerStyle;
+import com.example.beerservice.web.model.BeerStyleStats;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.AllArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Validated
@@ -19,11 +44,88 @@ import java.util.UUID;
 @RequestMapping("/api/v1/beer")
 public class BeerController {
 
+    private static final String DEFAULT_PAGE_NUMBER = "0";
+    private static final String DEFAULT_PAGE_SIZE = "25";
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int MAX_BATCH_SIZE = 50000;
+    private static final int MAX_LOOKUP_SIZE = 1000;
+    private static final int MAX_INVENTORY_ADJUSTMENT = 1_000_000;
+    private static final String DEFAULT_SEARCH_LIMIT = "10";
+    private static final int MAX_SEARCH_LIMIT = 100;
+
     private final BeerService beerService;
+    private final BeerSearchService beerSearchService;
+    private final BeerStyleStatsService beerStyleStatsService;
+    private final ObjectMapper objectMapper;
+
+    @GetMapping
+    public BeerList listBeers(@PositiveOrZero @RequestParam(defaultValue = DEFAULT_PAGE_NUMBER) int pageNumber,
+                              @Positive @Max(MAX_PAGE_SIZE) @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int pageSize,
+                              @RequestParam(required = false) String beerName,
+                              @RequestParam(required = false) BeerStyle beerStyle) {
+        return beerService.listBeers(beerName, beerStyle, PageRequest.of(pageNumber, pageSize, Sort.by("beerName", "id")));
+    }
+
+    @GetMapping("/keyset")
+    public BeerCursorList listBeersAfter(@RequestParam(required = false) UUID after,
+                                         @Positive @Max(MAX_PAGE_SIZE) @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int pageSize,
+                                         @RequestParam(required = false) String beerName,
+                                         @RequestParam(required = false) BeerStyle beerStyle) {
+        return beerService.listBeersAfter(beerName, beerStyle, after, pageSize);
+    }
+
+    @GetMapping("/search")
+    public BeerSearchResult searchBeers(@NotBlank @Size(max = 100) @RequestParam String q,
+                                        @RequestParam(required = false) BeerStyle beerStyle,
+                                        @Positive @Max(MAX_SEARCH_LIMIT) @RequestParam(defaultValue = DEFAULT_SEARCH_LIMIT) int limit) {
+        return beerSearchService.search(q, beerStyle, limit);
+    }
+
+    @GetMapping("/styles/stats")
+    public List<BeerStyleStats> getStyleStats() {
+        return beerStyleStatsService.getStyleStats();
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportBeers(@RequestParam(defaultValue = "NDJSON") BeerExportFormat format) {
+        StreamingResponseBody body = outputStream -> {
+            try (var writer = new BeerExportWriter(format, objectMapper, outputStream)) {
+                beerService.streamBeers(writer::write);
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"beers." + format.getFileExtension() + "\"")
+                .body(body);
+    }
 
     @GetMapping("/{beerId}")
-    public BeerDto getById(@NotNull @PathVariable UUID beerId) {
-        return beerService.getById(beerId);
+    public ResponseEntity<byte[]> getById(@NotNull @PathVariable UUID beerId) {
+        SerializedBeer serializedBeer = beerService.getSerializedById(beerId);
+
+        // the entity processor answers If-None-Match/If-Modified-Since with 304 before writing the body,
+        // otherwise the cached json is written as is
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(BeerETags.of(serializedBeer.getBeer()))
+                .lastModified(BeerETags.lastModified(serializedBeer.getBeer()))
+                .body(serializedBeer.getJson());
+    }
+
+    @PostMapping("/lookup")
+    public BeerLookupResult<UUID> getByIds(@NotEmpty @Size(max = MAX_LOOKUP_SIZE) @RequestBody List<UUID> beerIds) {
+        return beerService.getByIds(beerIds);
+    }
+
+    @GetMapping("/upc/{upc}")
+    public BeerDto getByUpc(@NotBlank @PathVariable String upc) {
+        return beerService.getByUpc(upc);
+    }
+
+    @PostMapping("/upc/lookup")
+    public BeerLookupResult<String> getByUpcs(@NotEmpty @Size(max = MAX_LOOKUP_SIZE) @RequestBody List<String> upcs) {
+        return beerService.getByUpcs(upcs);
     }
 
     @PostMapping
@@ -40,8 +142,38 @@ public class BeerController {
 
     @PutMapping("/{beerId}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    public void updateBeer(@NotNull @PathVariable UUID beerId, @Valid @RequestBody BeerDto beerDto) {
-        beerService.updateBeer(beerId, beerDto);
+    public void updateBeer(@NotNull @PathVariable UUID beerId, @RequestParam(required = false) Long version,
+                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                           @Valid @RequestBody BeerDto beerDto) {
+        if (ifMatch == null) {
+            // the version is optional and makes the update conditional, a stale one is answered with 409
+            beerDto.setVersion(version);
+            beerService.updateBeer(beerId, beerDto);
+            return;
+        }
+
+        beerDto.setVersion(BeerETags.expectedVersion(beerId, ifMatch));
+        try {
+            beerService.updateBeer(beerId, beerDto);
+        } catch (ResponseStatusException e) {
+            if (e.getStatus() == HttpStatus.CONFLICT)
+                throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, e.getReason());
+            throw e;
+        }
+    }
+
+    @PostMapping("/{beerId}/inventory/increment")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void incrementInventory(@NotNull @PathVariable UUID beerId,
+                                   @Positive @Max(MAX_INVENTORY_ADJUSTMENT) @RequestParam int quantity) {
+        beerService.adjustQuantityOnHand(beerId, quantity);
+    }
+
+    @PostMapping("/{beerId}/inventory/decrement")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void decrementInventory(@NotNull @PathVariable UUID beerId,
+                                   @Positive @Max(MAX_INVENTORY_ADJUSTMENT) @RequestParam int quantity) {
+        beerService.adjustQuantityOnHand(beerId, -quantity);
     }
 
     @DeleteMapping("/{beerId}")
@@ -49,4 +181,19 @@ public class BeerController {
     public void deleteBeer(@NotNull @PathVariable UUID beerId) {
         beerService.deleteById(beerId);
     }
+
+    @PostMapping("/batch")
+    public BeerBatchResult createNewBeers(@NotEmpty @Size(max = MAX_BATCH_SIZE) @RequestBody List<BeerDto> beerDtos) {
+        return beerService.saveNewBeers(beerDtos);
+    }
+
+    @PutMapping("/batch")
+    public BeerBatchResult updateBeers(@NotEmpty @Size(max = MAX_BATCH_SIZE) @RequestBody Map<UUID, BeerDto> beerDtos) {
+        return beerService.updateBeers(beerDtos);
+    }
+
+    @PostMapping("/batch/delete")
+    public BeerBatchResult deleteBeers(@NotEmpty @Size(max = MAX_BATCH_SIZE) @RequestBody List<UUID> beerIds) {
+        return beerService.deleteByIds(beerIds);
+    }
 }
@@ -0,0 +1,60 @@
+package com.example.beerservice.web.controller;
+
+import com.example.beerservice.web.model.BeerDto;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.ZoneId;
+import java.util.UUID;
+
+/**
+ * Entity tags of beers, derived from id, version and quantity on hand: {@code "<id>-<version>-<quantity>"}.
+ * Inventory adjustments don't bump the version, so the quantity has to be part of the tag.
+ */
+final class BeerETags {
+
+    private static final String ANY = "*";
+
+    private BeerETags() {
+    }
+
+    static String of(BeerDto beerDto) {
+        return "\"" + beerDto.getId() + "-" + beerDto.getVersion() + "-" + beerDto.getQuantityOnHand() + "\"";
+    }
+
+    /**
+     * The dtos carry the wall clock time of the default zone labelled as UTC (see {@code DateMapper}), so the
+     * instant is taken from that wall clock time in the default zone, like the entity's {@code Timestamp} does.
+     */
+    static long lastModified(BeerDto beerDto) {
+        return beerDto.getLastModifiedDate() == null ? -1
+                : beerDto.getLastModifiedDate().toLocalDateTime().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * @return the version an {@code If-Match} header expects for the beer, null if it matches any version
+     * @throws ResponseStatusException 412 if the header can't match the beer at all
+     */
+    static Long expectedVersion(UUID beerId, String ifMatch) {
+        var tag = ifMatch.trim();
+        if (ANY.equals(tag))
+            return null;
+
+        // If-Match uses strong comparison, weak tags and lists of tags never match a single version
+        if (tag.startsWith("W/") || tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"") || tag.contains(","))
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED);
+
+        // updates don't change the quantity, so only id and version have to match
+        var prefix = beerId + "-";
+        var value = tag.substring(1, tag.length() - 1);
+        var separator = value.indexOf('-', prefix.length());
+        if (!value.startsWith(prefix) || separator < 0)
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED);
+
+        try {
+            return Long.valueOf(value.substring(prefix.length(), separator));
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.beerservice.web.controller;
+
+import lombok.AllArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.validation.constraints.PositiveOrZero;
+
+@Validated
+@RestController
+@AllArgsConstructor
+@RequestMapping("/api/v1/beer/events")
+public class BeerEventController {
+
+    private final BeerEventStream beerEventStream;
+
+    /**
+     * Streams every beer change after the position, then keeps streaming new ones. A reconnecting EventSource
+     * sends the id of the last event it saw as {@code Last-Event-ID}, which takes precedence.
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(@PositiveOrZero @RequestParam(defaultValue = "0") long after,
+                                   @PositiveOrZero @RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId) {
+        return beerEventStream.subscribe(lastEventId != null ? lastEventId : after);
+    }
+}
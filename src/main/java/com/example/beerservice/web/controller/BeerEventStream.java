@@ -0,0 +1,211 @@
+package com.example.beerservice.web.controller;
+
+import com.example.beerservice.service.BeerEventPublisher;
+import com.example.beerservice.service.BeerOutboxService;
+import com.example.beerservice.web.model.BeerEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fans the relayed beer events out to Server-Sent-Events subscribers.
+ * <p>
+ * Every subscriber tails the outbox by position. It first catches up after its position, live events that arrive
+ * meanwhile are queued and sent afterwards, skipping what the catch-up already sent. The events the relay hands
+ * over only save the read as long as they continue where the subscriber is: on a gap, say a chunk another
+ * instance's relay published, the subscriber reads the outbox from its position again. For instances whose relay
+ * has nothing to publish, the stream also polls the newest position every {@code beer.events.poll-interval} and
+ * wakes the subscribers behind it.
+ * <p>
+ * Events are sent by a small pool, never by the relay, so a slow subscriber only delays itself. One that falls
+ * more than {@value #MAX_PENDING_EVENTS} events behind is disconnected and resumes from the outbox with
+ * {@code Last-Event-ID} when it reconnects.
+ */
+@Slf4j
+@Component
+// scheduled work, created eagerly with spring.main.lazy-initialization as well
+@Lazy(false)
+public class BeerEventStream implements BeerEventPublisher {
+
+    static final int MAX_PENDING_EVENTS = 10_000;
+    private static final int CATCH_UP_CHUNK_SIZE = 500;
+
+    private final BeerOutboxService outboxService;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders = Executors.newFixedThreadPool(4, new CustomizableThreadFactory("beer-events-"));
+
+    public BeerEventStream(BeerOutboxService outboxService) {
+        this.outboxService = outboxService;
+    }
+
+    SseEmitter subscribe(long after) {
+        // the servlet container's async timeout (spring.mvc.async.request-timeout) applies
+        var subscriber = new Subscriber(new SseEmitter(), after);
+        subscriber.emitter.onCompletion(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onTimeout(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onError(e -> subscribers.remove(subscriber));
+
+        // registered before catching up, so nothing relayed in between is missed
+        subscribers.add(subscriber);
+        senders.execute(() -> catchUp(subscriber));
+        return subscriber.emitter;
+    }
+
+    int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @Override
+    public void publish(List<BeerEvent> events) {
+        for (var subscriber : subscribers) {
+            if (subscriber.pendingCount.addAndGet(events.size()) > MAX_PENDING_EVENTS) {
+                close(subscriber);
+                continue;
+            }
+            subscriber.pending.addAll(events);
+            if (subscriber.caughtUp)
+                scheduleDrain(subscriber);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${beer.events.poll-interval:PT1S}")
+    public void poll() {
+        if (subscribers.isEmpty())
+            return;
+
+        var lastPosition = outboxService.lastPosition();
+        for (var subscriber : subscribers)
+            if (subscriber.caughtUp && subscriber.lastSent < lastPosition) {
+                subscriber.behind = true;
+                scheduleDrain(subscriber);
+            }
+    }
+
+    @Scheduled(fixedDelayString = "${beer.events.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        // lets idle subscribers notice a dead connection, and proxies keep it open
+        for (var subscriber : subscribers)
+            if (subscriber.caughtUp && subscriber.sending.compareAndSet(false, true)) {
+                try {
+                    subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+                } catch (IOException | IllegalStateException e) {
+                    close(subscriber);
+                } finally {
+                    subscriber.sending.set(false);
+                }
+                // events may have been published while the heartbeat held the subscriber
+                if (!subscriber.pending.isEmpty() || subscriber.behind)
+                    scheduleDrain(subscriber);
+            }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        senders.shutdownNow();
+    }
+
+    private void catchUp(Subscriber subscriber) {
+        try {
+            tail(subscriber);
+        } catch (IOException | RuntimeException e) {
+            close(subscriber);
+            return;
+        }
+
+        subscriber.caughtUp = true;
+        scheduleDrain(subscriber);
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        if (subscriber.sending.compareAndSet(false, true))
+            senders.execute(() -> drain(subscriber));
+    }
+
+    private void drain(Subscriber subscriber) {
+        do {
+            try {
+                BeerEvent event;
+                while ((event = subscriber.pending.poll()) != null) {
+                    subscriber.pendingCount.decrementAndGet();
+                    // positions have no gaps, the missing ones were relayed elsewhere or handed out before
+                    if (event.getPosition() > subscriber.lastSent + 1)
+                        tail(subscriber);
+                    send(subscriber, event);
+                }
+                if (subscriber.behind) {
+                    subscriber.behind = false;
+                    tail(subscriber);
+                }
+            } catch (IOException | RuntimeException e) {
+                close(subscriber);
+            } finally {
+                subscriber.sending.set(false);
+            }
+            // an event queued after the last poll but before sending was released would be left behind
+        } while ((!subscriber.pending.isEmpty() || subscriber.behind) && subscriber.sending.compareAndSet(false, true));
+    }
+
+    private void tail(Subscriber subscriber) throws IOException {
+        List<BeerEvent> events;
+        do {
+            events = outboxService.readAfter(subscriber.lastSent, CATCH_UP_CHUNK_SIZE);
+            for (var event : events)
+                send(subscriber, event);
+        } while (events.size() == CATCH_UP_CHUNK_SIZE);
+    }
+
+    private static void send(Subscriber subscriber, BeerEvent event) throws IOException {
+        // the catch-up and live events overlap, and the relay may hand out a batch twice
+        if (event.getPosition() <= subscriber.lastSent)
+            return;
+
+        subscriber.emitter.send(SseEmitter.event()
+                .id(String.valueOf(event.getPosition()))
+                .name("beer")
+                .data(event, MediaType.APPLICATION_JSON));
+        subscriber.lastSent = event.getPosition();
+    }
+
+    private void close(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            log.debug("Closing beer event subscriber at position {}", subscriber.lastSent);
+            subscriber.pending.clear();
+            subscriber.emitter.complete();
+        }
+    }
+
+    private static class Subscriber {
+        private final SseEmitter emitter;
+        private final Queue<BeerEvent> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pendingCount = new AtomicInteger();
+        // held by whoever sends to the emitter, which is not thread-safe for concurrent sends
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private volatile boolean caughtUp;
+        // set by the poll, the outbox has events after lastSent that no relay handed over
+        private volatile boolean behind;
+        private volatile long lastSent;
+
+        private Subscriber(SseEmitter emitter, long lastSent) {
+            this.emitter = emitter;
+            this.lastSent = lastSent;
+        }
+    }
+}
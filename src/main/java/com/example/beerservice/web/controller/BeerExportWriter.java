@@ -0,0 +1,107 @@
+package com.example.beerservice.web.controller;
+
+import com.example.beerservice.web.model.BeerDto;
+import com.example.beerservice.web.model.BeerExportFormat;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.util.StreamUtils;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes beers one row at a time to a buffered response stream, as newline delimited JSON or CSV.
+ */
+class BeerExportWriter implements Closeable {
+
+    private static final String CSV_HEADER = "id,version,createdDate,lastModifiedDate,beerName,beerStyle,upc,price,quantityOnHand";
+
+    private final BeerExportFormat format;
+    private final Writer writer;
+    private final JsonGenerator generator;
+    private final ObjectWriter jsonWriter;
+
+    private long rows;
+
+    BeerExportWriter(BeerExportFormat format, ObjectMapper objectMapper, OutputStream outputStream) throws IOException {
+        this.format = format;
+        // the servlet container closes the response stream, not us
+        this.writer = new BufferedWriter(new OutputStreamWriter(StreamUtils.nonClosing(outputStream), StandardCharsets.UTF_8));
+
+        if (format == BeerExportFormat.NDJSON) {
+            this.generator = objectMapper.getFactory().createGenerator(writer);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(new SerializedString("\n"));
+            // flushing after every row would defeat the buffer
+            this.jsonWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        } else {
+            this.generator = null;
+            this.jsonWriter = null;
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+    }
+
+    void write(BeerDto beer) {
+        try {
+            if (format == BeerExportFormat.NDJSON)
+                jsonWriter.writeValue(generator, beer);
+            else
+                writeCsvRow(beer);
+            rows++;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (generator != null) {
+            if (rows > 0)
+                generator.writeRaw('\n');
+            generator.close();
+        }
+        writer.close();
+    }
+
+    private void writeCsvRow(BeerDto beer) throws IOException {
+        writer.write(csv(beer.getId()));
+        writer.write(',');
+        writer.write(csv(beer.getVersion()));
+        writer.write(',');
+        writer.write(csv(beer.getCreatedDate()));
+        writer.write(',');
+        writer.write(csv(beer.getLastModifiedDate()));
+        writer.write(',');
+        writer.write(csv(beer.getBeerName()));
+        writer.write(',');
+        writer.write(csv(beer.getBeerStyle()));
+        writer.write(',');
+        writer.write(csv(beer.getUpc()));
+        writer.write(',');
+        writer.write(beer.getPrice() == null ? "" : beer.getPrice().toPlainString());
+        writer.write(',');
+        writer.write(csv(beer.getQuantityOnHand()));
+        writer.write('\n');
+    }
+
+    private static String csv(Object value) {
+        if (value == null)
+            return "";
+
+        var text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0)
+            return text;
+
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
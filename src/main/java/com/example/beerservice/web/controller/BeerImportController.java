@@ -0,0 +1,47 @@
+package com.example.beerservice.web.controller;
+
+import com.example.beerservice.service.BeerImportService;
+import com.example.beerservice.web.model.BeerExportFormat;
+import com.example.beerservice.web.model.BeerImportJob;
+import lombok.AllArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.validation.constraints.NotNull;
+import java.io.IOException;
+import java.net.URI;
+import java.util.UUID;
+
+@Validated
+@RestController
+@AllArgsConstructor
+@RequestMapping("/api/v1/beer/import")
+public class BeerImportController {
+
+    private final BeerImportService beerImportService;
+
+    /**
+     * Takes the file as the raw request body, in the format of the export, and answers once it is stored.
+     */
+    @PostMapping
+    public ResponseEntity<BeerImportJob> importBeers(@RequestParam(defaultValue = "NDJSON") BeerExportFormat format,
+                                                     HttpServletRequest request) throws IOException {
+        var job = beerImportService.importBeers(request.getInputStream(), format);
+
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/beer/import/" + job.getId()))
+                .body(job);
+    }
+
+    @GetMapping("/{jobId}")
+    public BeerImportJob getJob(@NotNull @PathVariable UUID jobId) {
+        return beerImportService.getJob(jobId);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.beerservice.web.controller;
+
+import com.example.beerservice.service.BeerPriceHistoryService;
+import com.example.beerservice.web.model.BeerPricePoint;
+import com.example.beerservice.web.model.BeerStyle;
+import lombok.AllArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.validation.constraints.NotNull;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Prices of beers at a given time and their changes over time, e.g. for invoicing. Times are ISO date times,
+ * {@code at} defaults to now.
+ */
+@Validated
+@RestController
+@AllArgsConstructor
+@RequestMapping("/api/v1/beer")
+public class BeerPriceController {
+
+    private final BeerPriceHistoryService priceHistoryService;
+
+    @GetMapping("/{beerId}/price")
+    public BeerPricePoint getPriceAt(@NotNull @PathVariable UUID beerId,
+                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime at) {
+        return priceHistoryService.getPriceAt(beerId, orNow(at));
+    }
+
+    @GetMapping("/{beerId}/price/history")
+    public List<BeerPricePoint> getPriceHistory(@NotNull @PathVariable UUID beerId,
+                                                @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+                                                @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to) {
+        return priceHistoryService.getPriceHistory(beerId, from, to);
+    }
+
+    @GetMapping("/styles/{beerStyle}/prices")
+    public List<BeerPricePoint> getStylePricesAt(@NotNull @PathVariable BeerStyle beerStyle,
+                                                 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime at) {
+        return priceHistoryService.getStylePricesAt(beerStyle, orNow(at));
+    }
+
+    @GetMapping("/styles/{beerStyle}/price/history")
+    public List<BeerPricePoint> getStylePriceHistory(@NotNull @PathVariable BeerStyle beerStyle,
+                                                     @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+                                                     @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to) {
+        return priceHistoryService.getStylePriceHistory(beerStyle, from, to);
+    }
+
+    private static OffsetDateTime orNow(OffsetDateTime at) {
+        return at != null ? at : OffsetDateTime.now(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.beerservice.web.controller;
+
+import com.example.beerservice.service.BrewOrderService;
+import com.example.beerservice.web.model.BrewOrderDto;
+import lombok.AllArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@AllArgsConstructor
+@RequestMapping("/api/v1/brew-orders")
+public class BrewOrderController {
+
+    private final BrewOrderService brewOrderService;
+
+    @GetMapping
+    public List<BrewOrderDto> listOpenOrders() {
+        return brewOrderService.listOpenOrders();
+    }
+}
@@ -0,0 +1,369 @@
+package com.example.beerservice.web.filter;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Hands requests over from the container thread to a bounded worker pool sized for the database.
+ * <p>
+ * The container thread goes back to accepting connections right away, so a spike of slow JDBC calls queues up
+ * in front of the workers instead of exhausting the connector's threads. Once the queue is full, requests are
+ * rejected with 503 immediately instead of piling up.
+ * <p>
+ * Endpoints that go async on their own (e.g. streamed exports and events) or outlast the timeout (imports) have to
+ * be excluded.
+ * <p>
+ * A request that times out, queued or running, is answered with 503. A queued one never runs. A running one
+ * can't be stopped, but nothing it writes afterwards reaches the container's response.
+ */
+@Slf4j
+public class OffloadingFilter extends OncePerRequestFilter {
+
+    private final Executor executor;
+    private final long timeoutMillis;
+    private final List<String> excludedPathSuffixes;
+
+    public OffloadingFilter(Executor executor, long timeoutMillis, List<String> excludedPathSuffixes) {
+        this.executor = executor;
+        this.timeoutMillis = timeoutMillis;
+        this.excludedPathSuffixes = excludedPathSuffixes;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        var uri = request.getRequestURI();
+        return !request.isAsyncSupported() || excludedPathSuffixes.stream().anyMatch(uri::endsWith);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws IOException {
+        AsyncContext asyncContext = request.startAsync(request, response);
+        asyncContext.setTimeout(timeoutMillis);
+        var exchange = new Exchange(asyncContext);
+        asyncContext.addListener(exchange);
+
+        try {
+            executor.execute(() -> {
+                // timed out while queued, the request and response may already belong to another request
+                if (exchange.isFinished() || !request.isAsyncStarted())
+                    return;
+
+                var offloadedResponse = new OffloadedResponse(response, exchange);
+                try {
+                    chain.doFilter(new OffloadedRequest(request), offloadedResponse);
+                } catch (Exception e) {
+                    log.error("Offloaded request " + request.getRequestURI() + " failed", e);
+                    sendError(offloadedResponse, HttpStatus.INTERNAL_SERVER_ERROR);
+                } finally {
+                    exchange.complete();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            sendError(response, HttpStatus.SERVICE_UNAVAILABLE);
+            exchange.complete();
+        }
+    }
+
+    private static void sendError(HttpServletResponse response, HttpStatus status) {
+        if (response.isCommitted())
+            return;
+        try {
+            response.sendError(status.value());
+        } catch (IOException e) {
+            log.debug("Could not send error response", e);
+        }
+    }
+
+    /**
+     * Completes a request exactly once, either when its worker is done or when it times out. The timeout answers
+     * with 503 unless the response is already committed. Afterwards the container recycles the request and
+     * response, so everything the worker still writes is dropped, see {@link OffloadedResponse}.
+     */
+    static class Exchange implements AsyncListener {
+
+        private final AsyncContext asyncContext;
+        // guarded by this, also held while the worker writes to the response
+        private boolean finished;
+
+        Exchange(AsyncContext asyncContext) {
+            this.asyncContext = asyncContext;
+        }
+
+        synchronized boolean isFinished() {
+            return finished;
+        }
+
+        synchronized void complete() {
+            if (finished)
+                return;
+            finished = true;
+            asyncContext.complete();
+        }
+
+        synchronized void run(ResponseAction action) throws IOException {
+            if (!finished)
+                action.run();
+        }
+
+        @Override
+        public synchronized void onTimeout(AsyncEvent event) {
+            if (finished)
+                return;
+            var response = (HttpServletResponse) asyncContext.getResponse();
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            sendError(response, HttpStatus.SERVICE_UNAVAILABLE);
+            complete();
+        }
+
+        @Override
+        public synchronized void onError(AsyncEvent event) {
+            // e.g. the client went away, the container completes the request itself
+            finished = true;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+
+    @FunctionalInterface
+    interface ResponseAction {
+        void run() throws IOException;
+    }
+
+    /**
+     * The response as the worker sees it. Every change goes through {@link Exchange#run}, so it either reaches
+     * the response before the request completes or not at all.
+     */
+    private static class OffloadedResponse extends HttpServletResponseWrapper {
+
+        private final Exchange exchange;
+        private ServletOutputStream outputStream;
+        private PrintWriter writer;
+
+        OffloadedResponse(HttpServletResponse response, Exchange exchange) {
+            super(response);
+            this.exchange = exchange;
+        }
+
+        private void run(ResponseAction action) {
+            try {
+                exchange.run(action);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void setStatus(int sc) {
+            run(() -> super.setStatus(sc));
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            exchange.run(() -> super.sendError(sc, msg));
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            exchange.run(() -> super.sendError(sc));
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            exchange.run(() -> super.sendRedirect(location));
+        }
+
+        @Override
+        public void addCookie(Cookie cookie) {
+            run(() -> super.addCookie(cookie));
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            run(() -> super.setHeader(name, value));
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            run(() -> super.addHeader(name, value));
+        }
+
+        @Override
+        public void setIntHeader(String name, int value) {
+            run(() -> super.setIntHeader(name, value));
+        }
+
+        @Override
+        public void addIntHeader(String name, int value) {
+            run(() -> super.addIntHeader(name, value));
+        }
+
+        @Override
+        public void setDateHeader(String name, long date) {
+            run(() -> super.setDateHeader(name, date));
+        }
+
+        @Override
+        public void addDateHeader(String name, long date) {
+            run(() -> super.addDateHeader(name, date));
+        }
+
+        @Override
+        public void setContentType(String type) {
+            run(() -> super.setContentType(type));
+        }
+
+        @Override
+        public void setCharacterEncoding(String charset) {
+            run(() -> super.setCharacterEncoding(charset));
+        }
+
+        @Override
+        public void setContentLength(int len) {
+            run(() -> super.setContentLength(len));
+        }
+
+        @Override
+        public void setContentLengthLong(long len) {
+            run(() -> super.setContentLengthLong(len));
+        }
+
+        @Override
+        public void setLocale(Locale loc) {
+            run(() -> super.setLocale(loc));
+        }
+
+        @Override
+        public void setBufferSize(int size) {
+            run(() -> super.setBufferSize(size));
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            exchange.run(super::flushBuffer);
+        }
+
+        @Override
+        public void reset() {
+            run(super::reset);
+        }
+
+        @Override
+        public void resetBuffer() {
+            run(super::resetBuffer);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                var delegate = super.getOutputStream();
+                outputStream = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        exchange.run(() -> delegate.write(b));
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        exchange.run(() -> delegate.write(b, off, len));
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        exchange.run(delegate::flush);
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        exchange.run(delegate::close);
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return delegate.isReady();
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener writeListener) {
+                        delegate.setWriteListener(writeListener);
+                    }
+                };
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                var delegate = super.getWriter();
+                // PrintWriter over a Writer adds no buffer of its own, nothing is left behind on completion
+                writer = new PrintWriter(new Writer() {
+                    @Override
+                    public void write(char[] cbuf, int off, int len) throws IOException {
+                        exchange.run(() -> delegate.write(cbuf, off, len));
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        exchange.run(delegate::flush);
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        exchange.run(delegate::close);
+                    }
+                });
+            }
+            return writer;
+        }
+    }
+
+    /**
+     * Downstream filters and the dispatcher servlet must see a plain request, not one that already went async.
+     */
+    private static class OffloadedRequest extends HttpServletRequestWrapper {
+
+        OffloadedRequest(HttpServletRequest request) {
+            super(request);
+        }
+
+        @Override
+        public boolean isAsyncStarted() {
+            return false;
+        }
+
+        @Override
+        public boolean isAsyncSupported() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.beerservice.web.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeerBatchItemResult {
+
+    // position of the item in the request
+    private int index;
+
+    private UUID id;
+
+    private BeerBatchItemStatus status;
+
+    private String message;
+}
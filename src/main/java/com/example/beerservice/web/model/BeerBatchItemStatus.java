@@ -0,0 +1,5 @@
+package com.example.beerservice.web.model;
+
+public enum BeerBatchItemStatus {
+    CREATED, UPDATED, DELETED, NOT_FOUND, INVALID, FAILED
+}
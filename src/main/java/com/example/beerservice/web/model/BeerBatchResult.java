@@ -0,0 +1,21 @@
+package com.example.beerservice.web.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeerBatchResult {
+
+    private int succeeded;
+
+    private int failed;
+
+    private List<BeerBatchItemResult> items;
+}
@@ -0,0 +1,26 @@
+package com.example.beerservice.web.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A keyset page of beers. Pass {@code nextCursor} as {@code after} to fetch the following page;
+ * it is null once the last page has been reached.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeerCursorList {
+
+    private List<BeerDto> content;
+
+    private int size;
+
+    private UUID nextCursor;
+}
@@ -0,0 +1,25 @@
+package com.example.beerservice.web.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeerEvent {
+    // position in the change stream, resume after it to continue where you left off
+    private Long position;
+    private UUID beerId;
+    // CREATED, UPDATED, DELETED or INVENTORY_ADJUSTED
+    private String type;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ssZ", shape = JsonFormat.Shape.STRING)
+    private OffsetDateTime occurredDate;
+}
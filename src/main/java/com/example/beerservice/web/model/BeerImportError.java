@@ -0,0 +1,17 @@
+package com.example.beerservice.web.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeerImportError {
+    // line of the file the record starts at
+    private long line;
+    private String upc;
+    private String message;
+}
@@ -0,0 +1,41 @@
+package com.example.beerservice.web.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeerImportJob {
+    private UUID id;
+    private BeerImportStatus status;
+    private BeerExportFormat format;
+
+    // records read so far, each ends up in exactly one of the counts below once it is written
+    private long read;
+    private long created;
+    // upc already in the catalogue or earlier in the file
+    private long duplicates;
+    private long invalid;
+    private long failed;
+
+    // the first invalid and failed records
+    private List<BeerImportError> errors;
+    // why the whole import failed
+    private String message;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ssZ", shape = JsonFormat.Shape.STRING)
+    private OffsetDateTime createdDate;
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ssZ", shape = JsonFormat.Shape.STRING)
+    private OffsetDateTime startedDate;
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ssZ", shape = JsonFormat.Shape.STRING)
+    private OffsetDateTime finishedDate;
+}
@@ -0,0 +1,5 @@
+package com.example.beerservice.web.model;
+
+public enum BeerImportStatus {
+    QUEUED, RUNNING, COMPLETED, FAILED
+}
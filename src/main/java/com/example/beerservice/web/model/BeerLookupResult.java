@@ -0,0 +1,23 @@
+package com.example.beerservice.web.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of resolving many beers at once by some key: the beers that were found and the keys that were not.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeerLookupResult<K> {
+
+    private Map<K, BeerDto> found;
+
+    private List<K> missing;
+}
@@ -0,0 +1,26 @@
+package com.example.beerservice.web.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeerPricePoint {
+    private UUID beerId;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private BigDecimal price;
+
+    // in effect from this time until the next point of the beer; with milliseconds, as-of queries are that exact
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSSZ", shape = JsonFormat.Shape.STRING)
+    private OffsetDateTime effectiveDate;
+}
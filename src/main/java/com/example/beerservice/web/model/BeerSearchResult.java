@@ -0,0 +1,22 @@
+package com.example.beerservice.web.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeerSearchResult {
+    // best matches by name, at most the requested limit
+    private List<BeerSearchHit> beers;
+    // matches per style, before filtering by style
+    private Map<BeerStyle, Integer> styles;
+    // matches after filtering by style
+    private int total;
+}
@@ -1,5 +1,9 @@
 package com.example.beerservice.web.model;
 
+/**
+ * Beers store the ordinal of their style, so new styles have to be added at the end and existing ones must
+ * never be reordered or removed.
+ */
 public enum BeerStyle {
     LAGER, PILSNER, STOUT, GOSE, PORTER, ALE, WHEAT, IPA, PALE_ALE, SAISON
 }
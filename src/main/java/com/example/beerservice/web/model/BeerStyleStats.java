@@ -0,0 +1,22 @@
+package com.example.beerservice.web.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeerStyleStats {
+    private BeerStyle beerStyle;
+    private long count;
+
+    // over the beers of the style that have a price, null if none has
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private BigDecimal averagePrice;
+}
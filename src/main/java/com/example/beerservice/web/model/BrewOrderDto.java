@@ -0,0 +1,27 @@
+package com.example.beerservice.web.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BrewOrderDto {
+    private UUID beerId;
+    private String beerName;
+
+    private Integer quantityToBrew;
+    // stock that triggered the order
+    private Long quantityOnHand;
+    private Integer minOnHand;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ssZ", shape = JsonFormat.Shape.STRING)
+    private OffsetDateTime createdDate;
+}
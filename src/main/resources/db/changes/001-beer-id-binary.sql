@@ -0,0 +1,17 @@
+-- Migrates beer.id from the varchar uuid column to binary(16) (H2 syntax).
+-- Existing ids keep their value, so the uuids exposed by the REST api do not change;
+-- only new rows get time-ordered ids from TimeOrderedUuidGenerator.
+--
+-- MySQL: use UNHEX(REPLACE(id, '-', '')) instead of the cast.
+-- PostgreSQL: use bytea and DECODE(REPLACE(id, '-', ''), 'hex') instead of binary(16) and the cast.
+
+ALTER TABLE beer ADD COLUMN id_bin BINARY(16);
+
+-- the text form may or may not contain dashes, the cast reads the remaining 32 characters as hex
+UPDATE beer SET id_bin = CAST(REPLACE(id, '-', '') AS BINARY(16));
+
+ALTER TABLE beer DROP PRIMARY KEY;
+ALTER TABLE beer DROP COLUMN id;
+ALTER TABLE beer ALTER COLUMN id_bin RENAME TO id;
+ALTER TABLE beer ALTER COLUMN id SET NOT NULL;
+ALTER TABLE beer ADD PRIMARY KEY (id);
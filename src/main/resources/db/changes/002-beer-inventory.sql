@@ -0,0 +1,16 @@
+-- Adds the folded quantity on hand to beer and the append-only inventory adjustment log (H2 syntax).
+-- Beers start without a quantity, which reads as 0 once the first adjustment is folded in.
+--
+-- MySQL/PostgreSQL: BIGINT AUTO_INCREMENT becomes BIGINT AUTO_INCREMENT/BIGSERIAL, binary(16) becomes bytea on PostgreSQL.
+
+ALTER TABLE beer ADD COLUMN quantity_on_hand INTEGER;
+ALTER TABLE beer ADD COLUMN inventory_modified_date TIMESTAMP;
+
+CREATE TABLE beer_inventory_adjustment (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    beer_id BINARY(16) NOT NULL,
+    delta BIGINT NOT NULL,
+    created_date TIMESTAMP
+);
+
+CREATE INDEX ix_beer_inventory_adjustment_beer_id ON beer_inventory_adjustment (beer_id);
@@ -0,0 +1,27 @@
+-- Migrates beer.beer_style from free text to the ordinal of BeerStyle in a tinyint, and indexes it (H2 syntax).
+-- Names are matched case-insensitively, so the "Lager" rows seeded by older versions become LAGER.
+-- Rows with an unknown style keep a NULL style; list them before migrating with
+--   SELECT id, beer_style FROM beer WHERE UPPER(beer_style) NOT IN ('LAGER', 'PILSNER', ...);
+--
+-- The ordinals below must match the declaration order of BeerStyle.
+-- MySQL/PostgreSQL: use SMALLINT instead of TINYINT on PostgreSQL, the rest is portable.
+
+ALTER TABLE beer ADD COLUMN beer_style_ordinal TINYINT;
+
+UPDATE beer SET beer_style_ordinal = CASE UPPER(TRIM(beer_style))
+    WHEN 'LAGER' THEN 0
+    WHEN 'PILSNER' THEN 1
+    WHEN 'STOUT' THEN 2
+    WHEN 'GOSE' THEN 3
+    WHEN 'PORTER' THEN 4
+    WHEN 'ALE' THEN 5
+    WHEN 'WHEAT' THEN 6
+    WHEN 'IPA' THEN 7
+    WHEN 'PALE_ALE' THEN 8
+    WHEN 'SAISON' THEN 9
+    END;
+
+ALTER TABLE beer DROP COLUMN beer_style;
+ALTER TABLE beer ALTER COLUMN beer_style_ordinal RENAME TO beer_style;
+
+CREATE INDEX ix_beer_beer_style ON beer (beer_style);
@@ -0,0 +1,18 @@
+-- Adds the transactional outbox of beer changes behind GET /api/v1/beer/events (H2 syntax).
+--
+-- MySQL: there are no sequences, use id BIGINT AUTO_INCREMENT and GenerationType.IDENTITY instead.
+-- PostgreSQL: binary(16) becomes bytea.
+
+CREATE SEQUENCE beer_outbox_event_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE beer_outbox_event (
+    id BIGINT PRIMARY KEY,
+    beer_id BINARY(16) NOT NULL,
+    type VARCHAR(20) NOT NULL,
+    created_date TIMESTAMP,
+    position BIGINT,
+    published_date TIMESTAMP
+);
+
+CREATE UNIQUE INDEX ix_beer_outbox_event_position ON beer_outbox_event (position);
+CREATE INDEX ix_beer_outbox_event_published_date ON beer_outbox_event (published_date);
@@ -0,0 +1,25 @@
+-- Adds the price history behind GET /api/v1/beer/{beerId}/price (H2 syntax).
+-- Every beer with a price starts with its current price, effective from its last modification.
+-- DATEDIFF reads the timestamps in the database's time zone, run the migration with the one the service uses.
+--
+-- MySQL: there are no sequences, use id BIGINT AUTO_INCREMENT and GenerationType.IDENTITY instead;
+--   the epoch milliseconds are CAST(UNIX_TIMESTAMP(...) * 1000 AS SIGNED).
+-- PostgreSQL: binary(16) becomes bytea, the epoch milliseconds are CAST(EXTRACT(EPOCH FROM ...) * 1000 AS BIGINT).
+
+CREATE SEQUENCE beer_price_change_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE beer_price_change (
+    id BIGINT PRIMARY KEY,
+    beer_id BINARY(16) NOT NULL,
+    price_cents BIGINT NOT NULL,
+    effective_from BIGINT NOT NULL
+);
+
+CREATE INDEX ix_beer_price_change_beer_id_effective_from ON beer_price_change (beer_id, effective_from);
+
+-- each id is the upper end of a block of 50 values, Hibernate's pooled optimizer never hands it out again
+INSERT INTO beer_price_change (id, beer_id, price_cents, effective_from)
+SELECT NEXT VALUE FOR beer_price_change_seq, id, CAST(ROUND(price * 100, 0) AS BIGINT),
+       DATEDIFF('MILLISECOND', TIMESTAMP '1970-01-01 00:00:00', COALESCE(last_modified_date, created_date))
+FROM beer
+WHERE price IS NOT NULL;
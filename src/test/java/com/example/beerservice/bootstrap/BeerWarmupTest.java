@@ -0,0 +1,95 @@
+package com.example.beerservice.bootstrap;
+
+import com.example.beerservice.metrics.StartupMetrics;
+import com.example.beerservice.service.WarmupTask;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(SpringExtension.class)
+class BeerWarmupTest {
+
+    @Mock
+    ObjectProvider<BeerLoader> beerLoaderProvider;
+
+    @Mock
+    ObjectProvider<WarmupTask> warmupTasks;
+
+    @Mock
+    BeerLoader beerLoader;
+
+    @Mock
+    WarmupTask firstTask;
+
+    @Mock
+    WarmupTask secondTask;
+
+    @Mock
+    StartupMetrics startupMetrics;
+
+    BeerWarmup warmup;
+
+    WarmupHealthIndicator healthIndicator;
+
+    @BeforeEach
+    void setUp() {
+        willAnswer(invocation -> {
+            invocation.<Consumer<BeerLoader>>getArgument(0).accept(beerLoader);
+            return null;
+        }).given(beerLoaderProvider).ifAvailable(any());
+        given(warmupTasks.orderedStream()).willAnswer(invocation -> Stream.of(firstTask, secondTask));
+
+        warmup = new BeerWarmup(beerLoaderProvider, warmupTasks, startupMetrics);
+        healthIndicator = new WarmupHealthIndicator(warmup);
+    }
+
+    @Test
+    void outOfServiceUntilWarm() {
+        Assertions.assertEquals(Status.OUT_OF_SERVICE, healthIndicator.health().getStatus());
+
+        warmup.warmUp();
+
+        Assertions.assertTrue(warmup.isWarm());
+        Assertions.assertEquals(Status.UP, healthIndicator.health().getStatus());
+        verify(startupMetrics).recordWarm();
+    }
+
+    @Test
+    void seedsBeforeRunningTheTasksInOrder() {
+        warmup.warmUp();
+
+        InOrder inOrder = inOrder(beerLoader, firstTask, secondTask);
+        inOrder.verify(beerLoader).loadBeers();
+        inOrder.verify(firstTask).warmUp();
+        inOrder.verify(secondTask).warmUp();
+    }
+
+    @Test
+    void failedTaskReportsDown() {
+        willThrow(new IllegalStateException("index")).given(firstTask).warmUp();
+
+        warmup.warmUp();
+
+        Assertions.assertFalse(warmup.isWarm());
+        Assertions.assertEquals(Status.DOWN, healthIndicator.health().getStatus());
+        verify(secondTask, never()).warmUp();
+        verify(startupMetrics, never()).recordWarm();
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.beerservice.domain;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TimeOrderedUuidGeneratorTest {
+
+    @Test
+    void versionAndVariant() {
+        var uuid = TimeOrderedUuidGenerator.next();
+
+        Assertions.assertEquals(7, uuid.version());
+        Assertions.assertEquals(2, uuid.variant());
+    }
+
+    @Test
+    void timestampPrefix() {
+        var epochMillis = 1585133955000L;
+
+        var uuid = TimeOrderedUuidGenerator.next(epochMillis);
+
+        Assertions.assertEquals(epochMillis, uuid.getMostSignificantBits() >>> 16);
+    }
+
+    @Test
+    void orderedByCreationTime() {
+        var earlier = TimeOrderedUuidGenerator.next(1585133955000L);
+        var later = TimeOrderedUuidGenerator.next(1585133955001L);
+
+        Assertions.assertTrue(Long.compareUnsigned(earlier.getMostSignificantBits(), later.getMostSignificantBits()) < 0);
+        Assertions.assertTrue(earlier.toString().compareTo(later.toString()) < 0);
+    }
+
+    @Test
+    void unique() {
+        var first = TimeOrderedUuidGenerator.next(1585133955000L);
+        var second = TimeOrderedUuidGenerator.next(1585133955000L);
+
+        Assertions.assertNotEquals(first, second);
+    }
+}
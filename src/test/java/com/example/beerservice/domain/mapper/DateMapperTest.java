@@ -0,0 +1,96 @@
+package com.example.beerservice.domain.mapper;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Random;
+import java.util.TimeZone;
+
+/**
+ * Checks the epoch arithmetic of {@link DateMapper} against the calendar based conversions it replaced.
+ */
+class DateMapperTest {
+
+    // 1800-01-01 to 2200-01-01, spanning the fast path boundary in 1900
+    private static final long MIN_EPOCH_MILLIS = -5364662400000L;
+    private static final long MAX_EPOCH_MILLIS = 7258118400000L;
+
+    TimeZone defaultTimeZone;
+
+    Random random;
+
+    @BeforeEach
+    void setUp() {
+        defaultTimeZone = TimeZone.getDefault();
+        random = new Random(42);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TimeZone.setDefault(defaultTimeZone);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"UTC", "+05:30", "-08:00", "Europe/Vienna", "America/New_York"})
+    void timestampToOffsetDateTime(String zone) {
+        var dateMapper = withDefaultZone(zone);
+
+        for (int i = 0; i < 10_000; i++) {
+            var timestamp = new Timestamp(randomEpochMillis());
+            timestamp.setNanos(random.nextInt(1_000_000_000));
+
+            Assertions.assertEquals(CalendarDateConversions.timestampToOffsetDateTime(timestamp),
+                    dateMapper.timestampToOffsetDateTime(timestamp), timestamp::toString);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"UTC", "+05:30", "-08:00", "Europe/Vienna", "America/New_York"})
+    void offsetDateTimeToTimestamp(String zone) {
+        var dateMapper = withDefaultZone(zone);
+
+        for (int i = 0; i < 10_000; i++) {
+            var offset = ZoneOffset.ofTotalSeconds((random.nextInt(36) - 18) * 3600);
+            var offsetDateTime = OffsetDateTime.ofInstant(new Timestamp(randomEpochMillis()).toInstant(), offset)
+                    .withNano(random.nextInt(1_000_000_000));
+
+            Assertions.assertEquals(CalendarDateConversions.offsetDateTimeToTimestamp(offsetDateTime),
+                    dateMapper.offsetDateTimeToTimestamp(offsetDateTime), offsetDateTime::toString);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"UTC", "+05:30", "Europe/Vienna"})
+    void roundTrip(String zone) {
+        var dateMapper = withDefaultZone(zone);
+        var timestamp = Timestamp.valueOf("2020-03-25 12:39:15.123456789");
+
+        Assertions.assertEquals(timestamp, dateMapper.offsetDateTimeToTimestamp(dateMapper.timestampToOffsetDateTime(timestamp)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"UTC", "Europe/Vienna"})
+    void nullSafe(String zone) {
+        var dateMapper = withDefaultZone(zone);
+
+        Assertions.assertNull(dateMapper.timestampToOffsetDateTime(null));
+        Assertions.assertNull(dateMapper.offsetDateTimeToTimestamp(null));
+    }
+
+    private DateMapper withDefaultZone(String zone) {
+        var zoneId = ZoneId.of(zone);
+        TimeZone.setDefault(TimeZone.getTimeZone(zoneId));
+        return new DateMapper(zoneId);
+    }
+
+    private long randomEpochMillis() {
+        return MIN_EPOCH_MILLIS + (long) (random.nextDouble() * (MAX_EPOCH_MILLIS - MIN_EPOCH_MILLIS));
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.beerservice.metrics;
+
+import com.example.beerservice.service.BeerService;
+import com.example.beerservice.web.model.BeerDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+class BeerMetricsAspectTest {
+
+    SimpleMeterRegistry meterRegistry;
+
+    BeerService target;
+
+    BeerService beerService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        target = mock(BeerService.class);
+
+        var proxyFactory = new AspectJProxyFactory(target);
+        proxyFactory.addAspect(new BeerMetricsAspect(meterRegistry));
+        beerService = proxyFactory.getProxy();
+    }
+
+    @Test
+    void timesServiceCalls() {
+        given(target.getById(any())).willReturn(new BeerDto());
+
+        beerService.getById(UUID.randomUUID());
+        beerService.getById(UUID.randomUUID());
+
+        var timer = meterRegistry.get(BeerMetricsAspect.SERVICE_TIMER)
+                .tag("method", "getById")
+                .tag("exception", "none")
+                .timer();
+        Assertions.assertEquals(2, timer.count());
+    }
+
+    @Test
+    void countsNotFound() {
+        given(target.getById(any())).willThrow(new ResponseStatusException(HttpStatus.NOT_FOUND));
+
+        Assertions.assertThrows(ResponseStatusException.class, () -> beerService.getById(UUID.randomUUID()));
+
+        Assertions.assertEquals(1, meterRegistry.get(BeerMetricsAspect.NOT_FOUND_COUNTER)
+                .tag("method", "getById")
+                .counter()
+                .count());
+        Assertions.assertEquals(1, meterRegistry.get(BeerMetricsAspect.SERVICE_TIMER)
+                .tag("exception", "ResponseStatusException")
+                .timer()
+                .count());
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.beerservice.repository;
+
+import com.example.beerservice.domain.Beer;
+import com.example.beerservice.web.model.BeerStyle;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.UUID;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:beerbulkupdates;DB_CLOSE_DELAY=-1")
+class BeerBulkUpdatesImplTest {
+
+    @Autowired
+    BeerRepository beerRepository;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Test
+    void updateBeerDetachesOnlyTheUpdatedBeer() {
+        var updatedId = beerRepository.save(beer("Weizen")).getId();
+        var otherId = beerRepository.save(beer("Dunkel")).getId();
+
+        transactionTemplate.execute(status -> {
+            var updated = beerRepository.findById(updatedId).orElseThrow();
+            var other = beerRepository.findById(otherId).orElseThrow();
+
+            Assertions.assertEquals(1, beerRepository.updateBeer(updatedId, updated.getVersion(), beer("Hefeweizen"),
+                    new Timestamp(System.currentTimeMillis())));
+
+            Assertions.assertFalse(entityManager.contains(updated));
+            Assertions.assertTrue(entityManager.contains(other));
+            var reloaded = beerRepository.findById(updatedId).orElseThrow();
+            Assertions.assertEquals("Hefeweizen", reloaded.getBeerName());
+            Assertions.assertEquals(updated.getVersion() + 1, reloaded.getVersion());
+            return null;
+        });
+
+        Assertions.assertEquals("Hefeweizen", beerRepository.findById(updatedId).orElseThrow().getBeerName());
+    }
+
+    private static Beer beer(String beerName) {
+        return Beer.builder()
+                .beerName(beerName)
+                .beerStyle(BeerStyle.WHEAT)
+                .upc(String.valueOf(Math.abs(UUID.randomUUID().getMostSignificantBits()) % 10_000_000_000_000L))
+                .price(new BigDecimal("3.95"))
+                .quantityOnHand(10)
+                .build();
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.beerservice.service;
+
+import com.example.beerservice.web.model.BeerDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class BeerDtoCacheTest {
+
+    BeerDtoCache cache;
+
+    UUID id;
+
+    ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        cache = new BeerDtoCache(100, Duration.ofMinutes(1), 100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+        id = UUID.randomUUID();
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void putKeepsNewestVersion() {
+        cache.put(BeerDto.builder().id(id).version(2L).beerName("new").build());
+        cache.put(BeerDto.builder().id(id).version(1L).beerName("stale").build());
+
+        var actual = cache.get(id, key -> Assertions.fail("should have been served from the cache"));
+
+        Assertions.assertEquals("new", actual.getBeerName());
+    }
+
+    @Test
+    void putReplacesOlderVersion() {
+        cache.put(BeerDto.builder().id(id).version(1L).beerName("old").build());
+        cache.put(BeerDto.builder().id(id).version(2L).beerName("new").build());
+
+        Assertions.assertEquals("new", cache.get(id, key -> null).getBeerName());
+    }
+
+    @Test
+    void invalidateForcesReload() {
+        cache.put(BeerDto.builder().id(id).version(1L).beerName("old").build());
+        cache.invalidate(id);
+
+        var actual = cache.get(id, key -> BeerDto.builder().id(key).version(2L).beerName("reloaded").build());
+
+        Assertions.assertEquals("reloaded", actual.getBeerName());
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        var loads = new AtomicInteger();
+        var loading = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+
+        var first = executor.submit(() -> cache.get(id, key -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            await(release);
+            return BeerDto.builder().id(key).version(1L).beerName("loaded").build();
+        }));
+        Assertions.assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        var others = new Future<?>[3];
+        for (int i = 0; i < others.length; i++)
+            others[i] = executor.submit(() -> cache.get(id, key -> {
+                loads.incrementAndGet();
+                return BeerDto.builder().id(key).beerName("second load").build();
+            }));
+        release.countDown();
+
+        Assertions.assertEquals("loaded", first.get(5, TimeUnit.SECONDS).getBeerName());
+        for (var other : others)
+            Assertions.assertEquals("loaded", ((BeerDto) other.get(5, TimeUnit.SECONDS)).getBeerName());
+        Assertions.assertEquals(1, loads.get());
+    }
+
+    @Test
+    void invalidateDropsRunningLoad() throws Exception {
+        var loading = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+
+        var stale = executor.submit(() -> cache.get(id, key -> {
+            loading.countDown();
+            await(release);
+            return BeerDto.builder().id(key).version(1L).beerName("stale").build();
+        }));
+        Assertions.assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        cache.invalidate(id);
+        var actual = cache.get(id, key -> BeerDto.builder().id(key).version(2L).beerName("updated").build());
+        release.countDown();
+
+        Assertions.assertEquals("stale", stale.get(5, TimeUnit.SECONDS).getBeerName());
+        Assertions.assertEquals("updated", actual.getBeerName());
+        Assertions.assertEquals("updated", cache.getIfPresent(id).getBeerName());
+    }
+
+    @Test
+    void notFoundIsRemembered() {
+        Assertions.assertNull(cache.get(id, key -> null));
+
+        Assertions.assertNull(cache.get(id, key -> Assertions.fail("should have been remembered as not found")));
+    }
+
+    @Test
+    void putForgetsNotFound() {
+        cache.get(id, key -> null);
+
+        cache.put(BeerDto.builder().id(id).version(1L).beerName("created").build());
+
+        Assertions.assertEquals("created", cache.get(id, key -> null).getBeerName());
+    }
+
+    @Test
+    void failedLoadIsNotCached() {
+        Assertions.assertThrows(IllegalStateException.class, () -> cache.get(id, key -> {
+            throw new IllegalStateException("database down");
+        }));
+
+        var actual = cache.get(id, key -> BeerDto.builder().id(key).version(1L).beerName("loaded").build());
+
+        Assertions.assertEquals("loaded", actual.getBeerName());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            Assertions.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
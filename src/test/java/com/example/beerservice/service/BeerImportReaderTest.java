@@ -0,0 +1,63 @@
+package com.example.beerservice.service;
+
+import com.example.beerservice.web.model.BeerExportFormat;
+import com.example.beerservice.web.model.BeerStyle;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+
+class BeerImportReaderTest {
+
+    ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Test
+    void readsQuotedCsvFieldsAcrossLines() throws IOException {
+        var csv = "\uFEFFupc,beerName,beerStyle,price,quantityOnHand\n"
+                + "0631234200036,\"Mango \"\"Bobs\"\",\nlimited\",ipa,12.95,\n"
+                + "\n"
+                + "0631234300019,Stiegl,LAGER,12.95,24\n";
+
+        var reader = new BeerImportReader(BeerExportFormat.CSV, objectMapper, new StringReader(csv));
+        var first = reader.next();
+        var second = reader.next();
+
+        Assertions.assertEquals(2, first.getLine());
+        Assertions.assertNull(first.getError());
+        Assertions.assertEquals("0631234200036", first.getUpc());
+        Assertions.assertEquals("Mango \"Bobs\",\nlimited", first.getBeer().getBeerName());
+        Assertions.assertEquals(BeerStyle.IPA, first.getBeer().getBeerStyle());
+        Assertions.assertEquals(new BigDecimal("12.95"), first.getBeer().getPrice());
+        Assertions.assertNull(first.getBeer().getQuantityOnHand());
+
+        Assertions.assertEquals(5, second.getLine());
+        Assertions.assertEquals(24, second.getBeer().getQuantityOnHand());
+        Assertions.assertNull(reader.next());
+    }
+
+    @Test
+    void ignoresGeneratedFieldsOfAnExport() throws IOException {
+        var ndjson = "{\"id\":\"0e2d5b3b-6d3c-4c63-9c8f-9e2a0f3c1f10\",\"version\":3,\"createdDate\":\"2020-03-25T12:39:15+0000\","
+                + "\"beerName\":\"Kaiser\",\"beerStyle\":\"LAGER\",\"upc\":\"0083783375213\",\"price\":\"12.95\"}\n";
+
+        var record = new BeerImportReader(BeerExportFormat.NDJSON, objectMapper, new StringReader(ndjson)).next();
+
+        Assertions.assertNull(record.getError());
+        Assertions.assertNull(record.getBeer().getId());
+        Assertions.assertNull(record.getBeer().getVersion());
+        Assertions.assertNull(record.getBeer().getCreatedDate());
+        Assertions.assertEquals("Kaiser", record.getBeer().getBeerName());
+    }
+
+    @Test
+    void rejectsOverlongRecord() {
+        var csv = "beerName\n\"" + "x".repeat(BeerImportReader.MAX_RECORD_LENGTH);
+
+        var reader = new BeerImportReader(BeerExportFormat.CSV, objectMapper, new StringReader(csv));
+
+        Assertions.assertThrows(IOException.class, reader::next);
+    }
+}
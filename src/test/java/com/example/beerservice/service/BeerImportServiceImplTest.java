@@ -0,0 +1,176 @@
+package com.example.beerservice.service;
+
+import com.example.beerservice.repository.BeerRepository;
+import com.example.beerservice.web.model.BeerBatchItemResult;
+import com.example.beerservice.web.model.BeerBatchItemStatus;
+import com.example.beerservice.web.model.BeerBatchResult;
+import com.example.beerservice.web.model.BeerDto;
+import com.example.beerservice.web.model.BeerExportFormat;
+import com.example.beerservice.web.model.BeerImportJob;
+import com.example.beerservice.web.model.BeerImportStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.validation.Validation;
+import javax.validation.Validator;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(SpringExtension.class)
+class BeerImportServiceImplTest {
+
+    @Mock
+    BeerService beerService;
+
+    @Mock
+    BeerRepository beerRepository;
+
+    @Spy
+    ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Spy
+    Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @InjectMocks
+    BeerImportServiceImpl service;
+
+    // upcs the database rejects as if another writer had just taken them
+    Set<String> takenUpcs = new HashSet<>();
+
+    @BeforeEach
+    void setUp() {
+        given(beerService.saveNewBeers(anyList())).willAnswer(invocation -> {
+            List<BeerDto> beerDtos = invocation.getArgument(0);
+            var items = new ArrayList<BeerBatchItemResult>();
+            for (int i = 0; i < beerDtos.size(); i++)
+                items.add(saved(i, beerDtos.get(i)));
+            return BeerBatchResult.builder().items(items).build();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void importSkipsInvalidAndDuplicateRecords() {
+        given(beerRepository.findUpcsByUpcIn(anyCollection())).willAnswer(invocation ->
+                invocation.<Collection<String>>getArgument(0).stream()
+                        .filter("0083783375213"::equals)
+                        .collect(Collectors.toList()));
+        var csv = "id,version,createdDate,lastModifiedDate,beerName,beerStyle,upc,price,quantityOnHand\n"
+                + ",,,,Mango Bobs,IPA,0631234200036,12.95,10\n"
+                + ",,,,Broken,NOT_A_STYLE,0631234200037,12.95,10\n"
+                + ",,,,Mango Bobs again,IPA,0631234200036,12.95,10\n"
+                + ",,,,Kaiser,LAGER,0083783375213,12.95,10\n"
+                + ",,,,,LAGER,0631234300020,12.95,10\n"
+                + ",,,,\"Stiegl, Goldbr\u00e4u\",LAGER,0631234300019,12.95,10\n";
+
+        var job = run(BeerExportFormat.CSV, csv);
+
+        Assertions.assertEquals(BeerImportStatus.COMPLETED, job.getStatus());
+        Assertions.assertEquals(6, job.getRead());
+        Assertions.assertEquals(2, job.getCreated());
+        Assertions.assertEquals(2, job.getDuplicates());
+        Assertions.assertEquals(2, job.getInvalid());
+        Assertions.assertEquals(0, job.getFailed());
+
+        var errors = job.getErrors();
+        Assertions.assertEquals(3, errors.get(0).getLine());
+        Assertions.assertEquals("beerStyle: cannot parse 'NOT_A_STYLE'", errors.get(0).getMessage());
+        Assertions.assertEquals(6, errors.get(1).getLine());
+        Assertions.assertTrue(errors.get(1).getMessage().startsWith("beerName: "));
+
+        // validated before the write, the blank name never reaches saveNewBeers
+        ArgumentCaptor<List<BeerDto>> saved = ArgumentCaptor.forClass(List.class);
+        verify(beerService, times(1)).saveNewBeers(saved.capture());
+        Assertions.assertEquals(List.of("Mango Bobs", "Stiegl, Goldbr\u00e4u"),
+                saved.getValue().stream().map(BeerDto::getBeerName).collect(Collectors.toList()));
+    }
+
+    @Test
+    void importIsolatesFailingRecord() {
+        takenUpcs.add("0631234200037");
+        var ndjson = "{\"beerName\":\"Mango Bobs\",\"beerStyle\":\"IPA\",\"upc\":\"0631234200036\",\"price\":\"12.95\"}\n"
+                + "\n"
+                + "{\"beerName\":\"Racing\",\"beerStyle\":\"IPA\",\"upc\":\"0631234200037\",\"price\":\"12.95\"}\n"
+                + "{\"beerName\":\n";
+
+        var job = run(BeerExportFormat.NDJSON, ndjson);
+
+        Assertions.assertEquals(BeerImportStatus.COMPLETED, job.getStatus());
+        Assertions.assertEquals(3, job.getRead());
+        Assertions.assertEquals(1, job.getCreated());
+        Assertions.assertEquals(1, job.getFailed());
+        Assertions.assertEquals(1, job.getInvalid());
+
+        var errors = job.getErrors();
+        Assertions.assertEquals(2, errors.size());
+        Assertions.assertEquals(3, errors.get(1).getLine());
+        Assertions.assertEquals("duplicate upc", errors.get(1).getMessage());
+        Assertions.assertTrue(errors.get(0).getMessage().startsWith("Malformed JSON"));
+    }
+
+    @Test
+    void importReadsAheadAcrossChunks() {
+        var csv = new StringBuilder("beerName,beerStyle,upc,price\n");
+        var beers = 3 * BeerImportServiceImpl.CHUNK_SIZE + 1;
+        for (int i = 0; i < beers; i++)
+            csv.append("Beer ").append(i).append(",ALE,").append(1_000_000 + i).append(",4.50\n");
+
+        var job = run(BeerExportFormat.CSV, csv.toString());
+
+        Assertions.assertEquals(beers, job.getCreated());
+        verify(beerService, times(4)).saveNewBeers(anyList());
+    }
+
+    @Test
+    void getJobNotFound() {
+        var exception = Assertions.assertThrows(ResponseStatusException.class, () -> service.getJob(UUID.randomUUID()));
+
+        Assertions.assertEquals(HttpStatus.NOT_FOUND, exception.getStatus());
+    }
+
+    private BeerBatchItemResult saved(int index, BeerDto beerDto) {
+        if (takenUpcs.contains(beerDto.getUpc()))
+            return new BeerBatchItemResult(index, null, BeerBatchItemStatus.FAILED, "duplicate upc");
+
+        var violations = validator.validate(beerDto);
+        if (!violations.isEmpty())
+            return new BeerBatchItemResult(index, null, BeerBatchItemStatus.INVALID, violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .collect(Collectors.joining(", ")));
+
+        return new BeerBatchItemResult(index, UUID.randomUUID(), BeerBatchItemStatus.CREATED, null);
+    }
+
+    private BeerImportJob run(BeerExportFormat format, String content) {
+        var job = new BeerImportServiceImpl.ImportJob(UUID.randomUUID(), format);
+        service.run(job, new BeerImportReader(format, objectMapper, new StringReader(content)));
+        return job.toDto();
+    }
+}
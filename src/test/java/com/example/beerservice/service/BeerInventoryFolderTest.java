@@ -0,0 +1,86 @@
+package com.example.beerservice.service;
+
+import com.example.beerservice.domain.BeerInventoryAdjustment;
+import com.example.beerservice.repository.BeerInventoryAdjustmentRepository;
+import com.example.beerservice.repository.BeerRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(SpringExtension.class)
+class BeerInventoryFolderTest {
+
+    @Mock
+    BeerInventoryAdjustmentRepository adjustmentRepository;
+
+    @Mock
+    BeerRepository beerRepository;
+
+    @Mock
+    TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    BeerInventoryFolder folder;
+
+    @BeforeEach
+    void setUp() {
+        given(transactionTemplate.execute(any())).willAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    void foldSumsAdjustmentsPerBeer() {
+        var beer1 = UUID.randomUUID();
+        var beer2 = UUID.randomUUID();
+        var earlier = new Timestamp(1_000);
+        var later = new Timestamp(2_000);
+        given(adjustmentRepository.findOldestForUpdate(any())).willReturn(List.of(
+                adjustment(1L, beer1, 10, earlier),
+                adjustment(2L, beer2, -3, earlier),
+                adjustment(3L, beer1, -4, later)));
+
+        folder.foldAdjustments();
+
+        verify(beerRepository, times(1)).addQuantityOnHand(beer1, 6L, later);
+        verify(beerRepository, times(1)).addQuantityOnHand(beer2, -3L, earlier);
+        verify(adjustmentRepository, times(1)).deleteAllByIdIn(eq(List.of(1L, 2L, 3L)));
+    }
+
+    @Test
+    void foldWithoutAdjustments() {
+        given(adjustmentRepository.findOldestForUpdate(any())).willReturn(List.of());
+
+        Assertions.assertEquals(0, folder.foldChunk());
+
+        verify(beerRepository, never()).addQuantityOnHand(any(), anyLong(), any());
+        verify(adjustmentRepository, never()).deleteAllByIdIn(anyCollection());
+    }
+
+    private static BeerInventoryAdjustment adjustment(long id, UUID beerId, long delta, Timestamp createdDate) {
+        return BeerInventoryAdjustment.builder()
+                .id(id)
+                .beerId(beerId)
+                .delta(delta)
+                .createdDate(createdDate)
+                .build();
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.beerservice.service;
+
+import com.example.beerservice.domain.BeerOutboxEvent;
+import com.example.beerservice.domain.mapper.DateMapper;
+import com.example.beerservice.repository.BeerOutboxEventRepository;
+import com.example.beerservice.web.model.BeerEvent;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(SpringExtension.class)
+class BeerOutboxServiceImplTest {
+
+    @Mock
+    BeerOutboxEventRepository outboxRepository;
+
+    @Mock
+    TransactionTemplate transactionTemplate;
+
+    @Mock
+    ObjectProvider<BeerEventPublisher> publishers;
+
+    @Mock
+    BeerEventPublisher publisher;
+
+    BeerOutboxServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        service = new BeerOutboxServiceImpl(outboxRepository, new DateMapper(), transactionTemplate, publishers, Duration.ofDays(7));
+        given(transactionTemplate.execute(any())).willAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        given(publishers.orderedStream()).willAnswer(invocation -> Stream.of(publisher));
+    }
+
+    @Test
+    void onBeerChangedWritesOutboxEvent() {
+        var beerId = UUID.randomUUID();
+
+        service.onBeerChanged(new BeerChangedEvent(beerId, BeerChangeType.UPDATED));
+
+        var captor = ArgumentCaptor.forClass(BeerOutboxEvent.class);
+        verify(outboxRepository).save(captor.capture());
+        Assertions.assertEquals(beerId, captor.getValue().getBeerId());
+        Assertions.assertEquals(BeerChangeType.UPDATED, captor.getValue().getType());
+        Assertions.assertNull(captor.getValue().getPosition());
+    }
+
+    @Test
+    void numberChunkContinuesAfterLastPosition() {
+        var first = event(1L, null);
+        var second = event(2L, null);
+        given(outboxRepository.findUnrelayedForUpdate(any())).willReturn(List.of(first, second));
+        given(outboxRepository.findMaxPosition()).willReturn(41L);
+
+        Assertions.assertEquals(2, service.numberChunk());
+
+        Assertions.assertEquals(42L, first.getPosition());
+        Assertions.assertEquals(43L, second.getPosition());
+    }
+
+    @Test
+    void numberChunkStartsAtOne() {
+        var first = event(1L, null);
+        given(outboxRepository.findUnrelayedForUpdate(any())).willReturn(List.of(first));
+
+        service.numberChunk();
+
+        Assertions.assertEquals(1L, first.getPosition());
+    }
+
+    @Test
+    void publishChunkMarksEventsPublished() {
+        var first = event(7L, 1L);
+        var second = event(8L, 2L);
+        given(outboxRepository.findUnpublished(any())).willReturn(List.of(first, second));
+
+        Assertions.assertEquals(2, service.publishChunk());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<BeerEvent>> captor = ArgumentCaptor.forClass(List.class);
+        verify(publisher).publish(captor.capture());
+        Assertions.assertEquals(1L, captor.getValue().get(0).getPosition());
+        Assertions.assertEquals(first.getBeerId(), captor.getValue().get(0).getBeerId());
+        Assertions.assertEquals("CREATED", captor.getValue().get(0).getType());
+        Assertions.assertNotNull(captor.getValue().get(0).getOccurredDate());
+        verify(outboxRepository).markPublished(eq(List.of(7L, 8L)), any());
+    }
+
+    @Test
+    void publishFailureKeepsEventsForNextRun() {
+        given(outboxRepository.findUnpublished(any())).willReturn(List.of(event(7L, 1L)));
+        willThrow(new IllegalStateException("broker down")).given(publisher).publish(anyList());
+
+        Assertions.assertEquals(0, service.publishChunk());
+
+        verify(outboxRepository, never()).markPublished(anyList(), any());
+    }
+
+    @Test
+    void purgeKeepsNewestEvent() {
+        given(outboxRepository.findMaxPosition()).willReturn(99L);
+
+        service.purgePublished();
+
+        verify(outboxRepository).deletePublishedBefore(any(), eq(99L));
+    }
+
+    private static BeerOutboxEvent event(Long id, Long position) {
+        return BeerOutboxEvent.builder()
+                .id(id)
+                .beerId(UUID.randomUUID())
+                .type(BeerChangeType.CREATED)
+                .createdDate(new Timestamp(System.currentTimeMillis()))
+                .position(position)
+                .build();
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.beerservice.service;
+
+import com.example.beerservice.domain.Beer;
+import com.example.beerservice.domain.BeerPriceChange;
+import com.example.beerservice.repository.BeerPriceChangeRepository;
+import com.example.beerservice.web.model.BeerStyle;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(SpringExtension.class)
+class BeerPriceHistoryServiceImplTest {
+
+    static final OffsetDateTime JANUARY = OffsetDateTime.of(2020, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+    static final OffsetDateTime FEBRUARY = JANUARY.plusMonths(1);
+
+    @Mock
+    BeerPriceChangeRepository priceChangeRepository;
+
+    @InjectMocks
+    BeerPriceHistoryServiceImpl service;
+
+    Beer beer;
+
+    @BeforeEach
+    void setUp() {
+        beer = Beer.builder()
+                .id(UUID.randomUUID())
+                .beerStyle(BeerStyle.LAGER)
+                .price(new BigDecimal("12.95"))
+                .build();
+    }
+
+    @Test
+    void createdBeerStartsHistory() {
+        service.onBeerChanged(BeerChangedEvent.created(beer.getId(), beer.getPrice()));
+
+        var captor = ArgumentCaptor.forClass(BeerPriceChange.class);
+        verify(priceChangeRepository).save(captor.capture());
+        Assertions.assertEquals(beer.getId(), captor.getValue().getBeerId());
+        Assertions.assertEquals(1295, captor.getValue().getPriceCents());
+        verify(priceChangeRepository, never()).findLatestAt(any(), anyLong(), any());
+    }
+
+    @Test
+    void updateWithOtherPriceIsAppended() {
+        service.onBeerChanged(BeerChangedEvent.updated(beer.getId(), new BigDecimal("11.95"), beer.getPrice()));
+
+        verify(priceChangeRepository).save(any());
+        verify(priceChangeRepository, never()).findLatestAt(any(), anyLong(), any());
+    }
+
+    @Test
+    void updateWithSamePriceIsNotAppended() {
+        service.onBeerChanged(BeerChangedEvent.updated(beer.getId(), new BigDecimal("12.950"), beer.getPrice()));
+
+        verify(priceChangeRepository, never()).save(any());
+        verify(priceChangeRepository, never()).findLatestAt(any(), anyLong(), any());
+    }
+
+    @Test
+    void singleStatementUpdateComparesWithLatestChange() {
+        given(priceChangeRepository.findLatestAt(eq(beer.getId()), eq(Long.MAX_VALUE), any()))
+                .willReturn(List.of(change(1295, JANUARY)));
+
+        service.onBeerChanged(BeerChangedEvent.updated(beer.getId(), beer.getPrice()));
+
+        verify(priceChangeRepository, never()).save(any());
+    }
+
+    @Test
+    void inventoryAdjustmentIsIgnored() {
+        service.onBeerChanged(new BeerChangedEvent(beer.getId(), BeerChangeType.INVENTORY_ADJUSTED));
+
+        verify(priceChangeRepository, never()).findLatestAt(any(), anyLong(), any());
+        verify(priceChangeRepository, never()).save(any());
+    }
+
+    @Test
+    void getPriceAt() {
+        given(priceChangeRepository.findLatestAt(eq(beer.getId()), eq(FEBRUARY.toInstant().toEpochMilli()), any()))
+                .willReturn(List.of(change(1295, JANUARY)));
+
+        var actual = service.getPriceAt(beer.getId(), FEBRUARY);
+
+        Assertions.assertEquals(new BigDecimal("12.95"), actual.getPrice());
+        Assertions.assertEquals(JANUARY, actual.getEffectiveDate());
+    }
+
+    @Test
+    void getPriceAtBeforeFirstPrice() {
+        given(priceChangeRepository.findLatestAt(any(), anyLong(), any())).willReturn(List.of());
+
+        var e = Assertions.assertThrows(ResponseStatusException.class, () -> service.getPriceAt(beer.getId(), JANUARY));
+        Assertions.assertEquals(HttpStatus.NOT_FOUND, e.getStatus());
+    }
+
+    @Test
+    void getPriceHistoryStartsWithPriceInEffect() {
+        var from = JANUARY.plusDays(10);
+        given(priceChangeRepository.findLatestAt(eq(beer.getId()), eq(from.toInstant().toEpochMilli()), any()))
+                .willReturn(List.of(change(1195, JANUARY)));
+        given(priceChangeRepository.findAllBetween(eq(beer.getId()), anyLong(), anyLong(), any()))
+                .willReturn(List.of(change(1295, JANUARY.plusDays(20))));
+
+        var actual = service.getPriceHistory(beer.getId(), from, FEBRUARY);
+
+        Assertions.assertEquals(2, actual.size());
+        Assertions.assertEquals(new BigDecimal("11.95"), actual.get(0).getPrice());
+        Assertions.assertEquals(new BigDecimal("12.95"), actual.get(1).getPrice());
+    }
+
+    @Test
+    void getPriceHistoryRejectsEmptyRange() {
+        var e = Assertions.assertThrows(ResponseStatusException.class,
+                () -> service.getPriceHistory(beer.getId(), FEBRUARY, JANUARY));
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST, e.getStatus());
+    }
+
+    @Test
+    void getStylePricesAtKeepsLastChangePerBeer() {
+        var first = change(1195, JANUARY);
+        var second = change(1295, JANUARY);
+        var other = BeerPriceChange.builder().id(3L).beerId(UUID.randomUUID()).priceCents(995)
+                .effectiveFrom(JANUARY.toInstant().toEpochMilli()).build();
+        given(priceChangeRepository.findLatestByStyleAt(eq(BeerStyle.LAGER), anyLong())).willReturn(List.of(first, second, other));
+
+        var actual = service.getStylePricesAt(BeerStyle.LAGER, FEBRUARY);
+
+        Assertions.assertEquals(2, actual.size());
+        Assertions.assertEquals(new BigDecimal("12.95"), actual.get(0).getPrice());
+        Assertions.assertEquals(new BigDecimal("9.95"), actual.get(1).getPrice());
+    }
+
+    private BeerPriceChange change(long priceCents, OffsetDateTime effectiveFrom) {
+        return BeerPriceChange.builder()
+                .beerId(beer.getId())
+                .priceCents(priceCents)
+                .effectiveFrom(effectiveFrom.toInstant().toEpochMilli())
+                .build();
+    }
+}
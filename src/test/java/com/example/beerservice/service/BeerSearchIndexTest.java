@@ -0,0 +1,94 @@
+package com.example.beerservice.service;
+
+import com.example.beerservice.web.model.BeerSearchHit;
+import com.example.beerservice.web.model.BeerStyle;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+class BeerSearchIndexTest {
+
+    BeerSearchIndex index;
+
+    UUID mango;
+    UUID stiegl;
+    UUID kaiser;
+
+    @BeforeEach
+    void setUp() {
+        index = new BeerSearchIndex();
+        mango = UUID.randomUUID();
+        stiegl = UUID.randomUUID();
+        kaiser = UUID.randomUUID();
+
+        index.put(mango, 1L, "Mango Bobs", BeerStyle.IPA);
+        index.put(stiegl, 1L, "Stiegl Goldbr\u00e4u", BeerStyle.LAGER);
+        index.put(kaiser, 1L, "Kaiser M\u00e4rzen-Bock", BeerStyle.LAGER);
+    }
+
+    @Test
+    void matchesTokenPrefixes() {
+        Assertions.assertEquals(List.of("Mango Bobs"), names(index.search("bob", null, 10).getBeers()));
+        Assertions.assertEquals(List.of("Mango Bobs"), names(index.search("MAN bo", null, 10).getBeers()));
+        Assertions.assertEquals(List.of("Kaiser M\u00e4rzen-Bock"), names(index.search("bock", null, 10).getBeers()));
+        Assertions.assertEquals(List.of("Stiegl Goldbr\u00e4u"), names(index.search("goldbr", null, 10).getBeers()));
+        Assertions.assertTrue(index.search("ango", null, 10).getBeers().isEmpty());
+        Assertions.assertTrue(index.search("mango stiegl", null, 10).getBeers().isEmpty());
+    }
+
+    @Test
+    void countsStylesBeforeFiltering() {
+        index.put(UUID.randomUUID(), 1L, "Bock Lager Dark", BeerStyle.STOUT);
+
+        var result = index.search("bo", BeerStyle.LAGER, 10);
+
+        Assertions.assertEquals(List.of("Kaiser M\u00e4rzen-Bock"), names(result.getBeers()));
+        Assertions.assertEquals(1, result.getTotal());
+        Assertions.assertEquals(1, result.getStyles().get(BeerStyle.IPA));
+        Assertions.assertEquals(1, result.getStyles().get(BeerStyle.LAGER));
+        Assertions.assertEquals(1, result.getStyles().get(BeerStyle.STOUT));
+    }
+
+    @Test
+    void limitsToFirstByName() {
+        for (var i = 0; i < 20; i++)
+            index.put(UUID.randomUUID(), 1L, "Pils " + (char) ('t' - i), BeerStyle.PILSNER);
+
+        var result = index.search("pils", null, 3);
+
+        Assertions.assertEquals(List.of("Pils a", "Pils b", "Pils c"), names(result.getBeers()));
+        Assertions.assertEquals(20, result.getTotal());
+    }
+
+    @Test
+    void updateReplacesTokens() {
+        index.put(mango, 2L, "Papaya Bobs", BeerStyle.IPA);
+
+        Assertions.assertTrue(index.search("mango", null, 10).getBeers().isEmpty());
+        Assertions.assertEquals(List.of("Papaya Bobs"), names(index.search("papaya", null, 10).getBeers()));
+    }
+
+    @Test
+    void staleVersionIsIgnored() {
+        index.put(mango, 3L, "Papaya Bobs", BeerStyle.IPA);
+        index.put(mango, 2L, "Mango Bobs", BeerStyle.IPA);
+
+        Assertions.assertEquals(List.of("Papaya Bobs"), names(index.search("bobs", null, 10).getBeers()));
+    }
+
+    @Test
+    void removeDropsBeer() {
+        index.remove(kaiser);
+
+        Assertions.assertTrue(index.search("kaiser", null, 10).getBeers().isEmpty());
+        Assertions.assertEquals(2, index.size());
+    }
+
+    private static List<String> names(List<BeerSearchHit> hits) {
+        return hits.stream().map(BeerSearchHit::getBeerName).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.beerservice.service;
+
+import com.example.beerservice.web.model.BeerDto;
+import com.example.beerservice.web.model.BeerLookupResult;
+import com.example.beerservice.web.model.BeerStyle;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(SpringExtension.class)
+class BeerSearchServiceImplTest {
+
+    @Mock
+    BeerService beerService;
+
+    @InjectMocks
+    BeerSearchServiceImpl service;
+
+    UUID mango;
+    UUID stiegl;
+
+    @BeforeEach
+    void setUp() {
+        mango = UUID.randomUUID();
+        stiegl = UUID.randomUUID();
+        service.warmUp();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive())
+            TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void readsChangedBeersOncePerCommit() {
+        given(beerService.loadByIds(Set.of(mango, stiegl))).willReturn(BeerLookupResult.<UUID>builder()
+                .found(Map.of(mango, beer(mango, "Mango Bobs")))
+                .missing(List.of(stiegl))
+                .build());
+        service.put(beer(stiegl, "Stiegl Goldbraeu"));
+
+        TransactionSynchronizationManager.initSynchronization();
+        service.onBeerChanged(new BeerChangedEvent(mango, BeerChangeType.CREATED));
+        service.onBeerChanged(new BeerChangedEvent(stiegl, BeerChangeType.UPDATED));
+        service.onBeerChanged(new BeerChangedEvent(mango, BeerChangeType.UPDATED));
+        service.onBeerChanged(new BeerChangedEvent(stiegl, BeerChangeType.DELETED));
+        verify(beerService, never()).loadByIds(any());
+        commit();
+
+        verify(beerService, times(1)).loadByIds(any());
+        verify(beerService, never()).getById(any());
+        Assertions.assertEquals(1, service.search("mango", null, 10).getBeers().size());
+        Assertions.assertTrue(service.search("stiegl", null, 10).getBeers().isEmpty());
+    }
+
+    @Test
+    void ignoresInventoryAdjustments() {
+        service.onBeerChanged(new BeerChangedEvent(mango, BeerChangeType.INVENTORY_ADJUSTED));
+
+        verify(beerService, never()).loadByIds(any());
+    }
+
+    private static void commit() {
+        var synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        synchronizations.forEach(synchronization ->
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    private static BeerDto beer(UUID id, String beerName) {
+        return BeerDto.builder()
+                .id(id)
+                .version(1L)
+                .beerName(beerName)
+                .beerStyle(BeerStyle.IPA)
+                .build();
+    }
+}
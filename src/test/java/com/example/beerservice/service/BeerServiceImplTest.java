@@ -2,24 +2,55 @@ package com.example.beerservice.service;
 
 import com.example.beerservice.domain.Beer;
 import com.example.beerservice.domain.mapper.BeerMapper;
+import com.example.beerservice.domain.mapper.DateMapper;
+import com.example.beerservice.repository.BeerInventoryAdjustmentRepository;
 import com.example.beerservice.repository.BeerRepository;
+import com.example.beerservice.repository.BeerWithInventory;
+import com.example.beerservice.web.model.BeerBatchItemStatus;
 import com.example.beerservice.web.model.BeerDto;
 import com.example.beerservice.web.model.BeerStyle;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
+import javax.persistence.EntityManager;
+import javax.validation.ConstraintViolation;
+import javax.validation.Path;
+import javax.validation.Validator;
 import java.math.BigDecimal;
-import java.util.Optional;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -34,6 +65,30 @@ class BeerServiceImplTest {
     @Mock
     BeerMapper mapper;
 
+    @Spy
+    DateMapper dateMapper = new DateMapper();
+
+    @Mock
+    BeerInventoryAdjustmentRepository adjustmentRepository;
+
+    @Mock
+    Validator validator;
+
+    @Mock
+    TransactionTemplate transactionTemplate;
+
+    @Mock
+    EntityManager entityManager;
+
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    BeerDtoCache beerDtoCache = new BeerDtoCache(100, Duration.ofMinutes(1), 100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+
+    @Spy
+    BeerJsonCache beerJsonCache = new BeerJsonCache(new ObjectMapper().findAndRegisterModules(), 100, new SimpleMeterRegistry());
+
     @InjectMocks
     BeerServiceImpl service;
 
@@ -51,7 +106,7 @@ class BeerServiceImplTest {
                 .id(id)
                 .version(1L)
                 .beerName("Testy McGuffin")
-                .beerStyle(BeerStyle.ALE.toString())
+                .beerStyle(BeerStyle.ALE)
                 .upc("0631234200036")
                 .price(BigDecimal.valueOf(6.99))
                 .quantityToBrew(200)
@@ -70,11 +125,64 @@ class BeerServiceImplTest {
 
         given(mapper.beerToBeerDto(entity)).willReturn(dto);
         given(mapper.beerDtoToBeer(dto)).willReturn(entity);
+        given(transactionTemplate.execute(any())).willAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    void listBeers() {
+        var pageRequest = PageRequest.of(0, 2);
+        var deletedId = UUID.randomUUID();
+        entity.setQuantityOnHand(100);
+        given(repository.findIdsByFilter(any(), any(), any())).willReturn(new PageImpl<>(List.of(deletedId, id), pageRequest, 2));
+        given(repository.findWithInventoryByIdIn(any())).willReturn(rows(new BeerWithInventory(entity, -30L, null)));
+
+        var actual = service.listBeers("Testy McGuffin", BeerStyle.ALE, pageRequest);
+
+        Assertions.assertEquals(2, actual.getTotalElements());
+        Assertions.assertEquals(1, actual.getContent().size());
+        Assertions.assertEquals(id, actual.getContent().get(0).getId());
+        Assertions.assertEquals(70, actual.getContent().get(0).getQuantityOnHand());
+
+        verify(repository, times(1)).findIdsByFilter("Testy McGuffin", BeerStyle.ALE, pageRequest);
+        verify(repository, times(1)).findWithInventoryByIdIn(List.of(deletedId, id));
+    }
+
+    @Test
+    void listBeersAfterFirstPage() {
+        var other = Beer.builder().id(UUID.randomUUID()).build();
+        entity.setQuantityOnHand(100);
+        given(repository.findWithInventoryByFilterOrderById(any(), any(), any()))
+                .willReturn(rows(new BeerWithInventory(entity, 5L, null), new BeerWithInventory(other, null, null)));
+
+        var actual = service.listBeersAfter(null, null, null, 1);
+
+        Assertions.assertEquals(1, actual.getSize());
+        Assertions.assertEquals(id, actual.getContent().get(0).getId());
+        Assertions.assertEquals(105, actual.getContent().get(0).getQuantityOnHand());
+        Assertions.assertEquals(id, actual.getNextCursor());
+
+        verify(repository, times(1)).findWithInventoryByFilterOrderById(null, null, PageRequest.of(0, 2));
+        verify(repository, never()).findWithInventoryByFilterAfterId(any(), any(), any(), any());
+    }
+
+    @Test
+    void listBeersAfterLastPage() {
+        var after = UUID.randomUUID();
+        given(repository.findWithInventoryByFilterAfterId(any(), any(), any(), any()))
+                .willReturn(rows(new BeerWithInventory(entity, null, null)));
+
+        var actual = service.listBeersAfter(null, BeerStyle.ALE, after, 5);
+
+        Assertions.assertEquals(1, actual.getSize());
+        Assertions.assertNull(actual.getNextCursor());
+
+        verify(repository, times(1)).findWithInventoryByFilterAfterId(eq(null), eq(BeerStyle.ALE), eq(after), eq(PageRequest.of(0, 6)));
     }
 
     @Test
     void getById() {
-        given(repository.findById(any())).willReturn(Optional.of(entity));
+        given(repository.findWithInventoryById(any())).willReturn(rows(new BeerWithInventory(entity, null, null)));
 
         var actual = service.getById(id);
 
@@ -82,21 +190,190 @@ class BeerServiceImplTest {
         Assertions.assertEquals(entity.getId(), actual.getId());
         Assertions.assertEquals(entity.getVersion(), actual.getVersion());
         Assertions.assertEquals(entity.getBeerName(), actual.getBeerName());
-        Assertions.assertEquals(entity.getBeerStyle(), actual.getBeerStyle().toString());
+        Assertions.assertEquals(entity.getBeerStyle(), actual.getBeerStyle());
         Assertions.assertEquals(entity.getUpc(), actual.getUpc());
         Assertions.assertEquals(entity.getPrice(), actual.getPrice());
 
-        verify(repository, times(1)).findById(id);
+        verify(repository, times(1)).findWithInventoryById(id);
+    }
+
+    @Test
+    void getByIdCached() {
+        given(repository.findWithInventoryById(any())).willReturn(rows(new BeerWithInventory(entity, null, null)));
+
+        var first = service.getById(id);
+        var second = service.getById(id);
+
+        Assertions.assertSame(first, second);
+        verify(repository, times(1)).findWithInventoryById(id);
+        verify(mapper, times(1)).beerToBeerDto(entity);
+    }
+
+    @Test
+    void getByIdWithPendingAdjustments() {
+        var adjusted = new Timestamp(System.currentTimeMillis());
+        entity.setQuantityOnHand(100);
+        entity.setLastModifiedDate(new Timestamp(adjusted.getTime() - 60_000));
+        dto.setQuantityOnHand(100);
+        given(repository.findWithInventoryById(id)).willReturn(rows(new BeerWithInventory(entity, -30L, adjusted)));
+
+        var actual = service.getById(id);
+
+        Assertions.assertEquals(70, actual.getQuantityOnHand());
+        Assertions.assertEquals(dateMapper.timestampToOffsetDateTime(adjusted), actual.getLastModifiedDate());
+    }
+
+    @Test
+    void adjustQuantityOnHand() {
+        entity.setQuantityOnHand(10);
+        given(repository.findWithInventoryById(id)).willReturn(rows(new BeerWithInventory(entity, -5L, null)));
+
+        service.adjustQuantityOnHand(id, -5);
+
+        verify(adjustmentRepository, times(1)).save(argThat(adjustment ->
+                adjustment.getBeerId().equals(id) && adjustment.getDelta() == -5L));
+        verify(repository, never()).save(any());
+        verify(beerDtoCache, times(1)).invalidate(id);
+        verify(beerJsonCache, times(1)).invalidate(id);
+        verify(eventPublisher, times(1)).publishEvent(argThat((Object event) -> event instanceof BeerChangedEvent
+                && ((BeerChangedEvent) event).getType() == BeerChangeType.INVENTORY_ADJUSTED));
+    }
+
+    @Test
+    void adjustQuantityOnHandBelowZero() {
+        entity.setQuantityOnHand(10);
+        given(repository.findWithInventoryById(id)).willReturn(rows(new BeerWithInventory(entity, -6L, null)));
+
+        var e = Assertions.assertThrows(ResponseStatusException.class, () -> service.adjustQuantityOnHand(id, -5));
+        Assertions.assertEquals(HttpStatus.CONFLICT, e.getStatus());
+        verify(adjustmentRepository, never()).save(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void saturatesQuantityOnHand() {
+        entity.setQuantityOnHand(Integer.MAX_VALUE);
+        given(repository.findWithInventoryById(id)).willReturn(rows(new BeerWithInventory(entity, 10L, null)));
+
+        Assertions.assertEquals(Integer.MAX_VALUE, service.getById(id).getQuantityOnHand());
+    }
+
+    @Test
+    void adjustQuantityOnHandNotFound() {
+        given(repository.existsById(id)).willReturn(false);
+
+        var e = Assertions.assertThrows(ResponseStatusException.class, () -> service.adjustQuantityOnHand(id, 5));
+        Assertions.assertEquals(HttpStatus.NOT_FOUND, e.getStatus());
+        verify(adjustmentRepository, never()).save(any());
     }
 
     @Test
     void getByIdFail() {
-        given(repository.findById(any())).willReturn(Optional.empty());
+        given(repository.findWithInventoryById(any())).willReturn(List.of());
 
         var e = Assertions.assertThrows(ResponseStatusException.class, () -> service.getById(id));
         Assertions.assertEquals(HttpStatus.NOT_FOUND, e.getStatus());
     }
 
+    @Test
+    void getByIdNotFoundCached() {
+        given(repository.findWithInventoryById(any())).willReturn(List.of());
+
+        Assertions.assertThrows(ResponseStatusException.class, () -> service.getById(id));
+        Assertions.assertThrows(ResponseStatusException.class, () -> service.getById(id));
+
+        verify(repository, times(1)).findWithInventoryById(id);
+    }
+
+    @Test
+    void getByUpc() {
+        entity.setQuantityOnHand(100);
+        given(repository.findWithInventoryByUpc(any())).willReturn(rows(new BeerWithInventory(entity, -30L, null)));
+        given(repository.findWithInventoryById(any())).willReturn(rows(new BeerWithInventory(entity, -30L, null)));
+
+        var first = service.getByUpc(entity.getUpc());
+        var second = service.getByUpc(entity.getUpc());
+        var third = service.getByUpc(entity.getUpc());
+
+        Assertions.assertEquals(id, first.getId());
+        Assertions.assertEquals(id, second.getId());
+        Assertions.assertEquals(id, third.getId());
+        Assertions.assertEquals(70, first.getQuantityOnHand());
+        // the first lookup reads the beer by its upc in one statement and learns its id, the second one loads
+        // the beer into the cache by that id
+        verify(repository, times(1)).findWithInventoryByUpc(entity.getUpc());
+        verify(repository, times(1)).findWithInventoryById(id);
+    }
+
+    @Test
+    void getByUpcChanged() {
+        var otherUpc = "0083783375213";
+        beerDtoCache.putUpc(otherUpc, id);
+        beerDtoCache.put(dto);
+        given(repository.findWithInventoryByUpc(any())).willReturn(List.of());
+
+        var e = Assertions.assertThrows(ResponseStatusException.class, () -> service.getByUpc(otherUpc));
+
+        Assertions.assertEquals(HttpStatus.NOT_FOUND, e.getStatus());
+        verify(repository, times(1)).findWithInventoryByUpc(otherUpc);
+    }
+
+    @Test
+    void getByUpcs() {
+        var missingUpc = "0083783375213";
+        entity.setQuantityOnHand(100);
+        given(repository.findWithInventoryByUpcIn(any())).willReturn(rows(new BeerWithInventory(entity, -30L, null)));
+
+        var actual = service.getByUpcs(List.of(entity.getUpc(), missingUpc));
+
+        Assertions.assertEquals(dto, actual.getFound().get(entity.getUpc()));
+        Assertions.assertEquals(70, actual.getFound().get(entity.getUpc()).getQuantityOnHand());
+        Assertions.assertEquals(List.of(missingUpc), actual.getMissing());
+        verify(repository, times(1)).findWithInventoryByUpcIn(List.of(entity.getUpc(), missingUpc));
+    }
+
+    @Test
+    void getByIds() {
+        var cachedId = UUID.randomUUID();
+        var missingId = UUID.randomUUID();
+        var cached = BeerDto.builder().id(cachedId).version(1L).beerName("cached").build();
+        beerDtoCache.put(cached);
+        given(repository.findWithInventoryByIdIn(any())).willReturn(rows(new BeerWithInventory(entity, null, null)));
+
+        var actual = service.getByIds(List.of(cachedId, id, missingId, id));
+
+        Assertions.assertSame(cached, actual.getFound().get(cachedId));
+        Assertions.assertEquals(dto, actual.getFound().get(id));
+        Assertions.assertEquals(List.of(missingId), actual.getMissing());
+        verify(repository, times(1)).findWithInventoryByIdIn(List.of(id, missingId));
+    }
+
+    @Test
+    void loadByIdsSkipsTheCache() {
+        var missingId = UUID.randomUUID();
+        beerDtoCache.put(BeerDto.builder().id(id).version(0L).beerName("stale").build());
+        given(repository.findWithInventoryByIdIn(any())).willReturn(rows(new BeerWithInventory(entity, null, null)));
+
+        var actual = service.loadByIds(List.of(id, missingId));
+
+        Assertions.assertEquals(dto, actual.getFound().get(id));
+        Assertions.assertEquals(List.of(missingId), actual.getMissing());
+        verify(repository, times(1)).findWithInventoryByIdIn(List.of(id, missingId));
+    }
+
+    @Test
+    void streamBeers() {
+        entity.setQuantityOnHand(100);
+        given(repository.streamWithInventoryByOrderById()).willReturn(rows(new BeerWithInventory(entity, -30L, null)).stream());
+        var consumed = new ArrayList<BeerDto>();
+
+        service.streamBeers(consumed::add);
+
+        Assertions.assertEquals(List.of(dto), consumed);
+        Assertions.assertEquals(70, consumed.get(0).getQuantityOnHand());
+        verify(entityManager, times(1)).detach(entity);
+    }
+
     @Test
     void saveNewBeer() {
         given(repository.save(any())).willReturn(entity);
@@ -107,7 +384,7 @@ class BeerServiceImplTest {
         Assertions.assertEquals(entity.getId(), actual.getId());
         Assertions.assertEquals(entity.getVersion(), actual.getVersion());
         Assertions.assertEquals(entity.getBeerName(), actual.getBeerName());
-        Assertions.assertEquals(entity.getBeerStyle(), actual.getBeerStyle().toString());
+        Assertions.assertEquals(entity.getBeerStyle(), actual.getBeerStyle());
         Assertions.assertEquals(entity.getUpc(), actual.getUpc());
         Assertions.assertEquals(entity.getPrice(), actual.getPrice());
 
@@ -116,28 +393,151 @@ class BeerServiceImplTest {
 
     @Test
     void updateBeer() {
-        given(repository.findById(any())).willReturn(Optional.of(entity));
+        given(repository.updateBeer(any(), any(), any(), any())).willReturn(1);
 
         service.updateBeer(id, dto);
 
-        verify(repository, times(1)).findById(id);
-        verify(repository, times(1)).save(any());
+        verify(repository, times(1)).updateBeer(eq(id), eq(dto.getVersion()), eq(entity),
+                argThat(lastModified -> Math.abs(lastModified.getTime() - System.currentTimeMillis()) < 60_000));
+        verify(repository, never()).findById(any());
+        verify(repository, never()).save(any());
+        verify(beerDtoCache, times(1)).invalidate(id);
+        verify(beerJsonCache, times(1)).invalidate(id);
     }
 
 
     @Test
     void updateFail() {
-        given(repository.findById(any())).willReturn(Optional.empty());
+        given(repository.updateBeer(any(), any(), any(), any())).willReturn(0);
+        given(repository.existsById(any())).willReturn(false);
 
         var e = Assertions.assertThrows(ResponseStatusException.class, () -> service.updateBeer(id, dto));
         Assertions.assertEquals(HttpStatus.NOT_FOUND, e.getStatus());
     }
 
+    @Test
+    void updateConflict() {
+        given(repository.updateBeer(any(), any(), any(), any())).willReturn(0);
+        given(repository.existsById(any())).willReturn(true);
+
+        var e = Assertions.assertThrows(ResponseStatusException.class, () -> service.updateBeer(id, dto));
+        Assertions.assertEquals(HttpStatus.CONFLICT, e.getStatus());
+        verify(beerDtoCache, never()).invalidate(any());
+    }
+
 
     @Test
     void deleteById() {
         service.deleteById(id);
 
         verify(repository, times(1)).deleteById(id);
+        verify(beerDtoCache, times(1)).invalidate(id);
+        verify(beerJsonCache, times(1)).invalidate(id);
+    }
+
+    @Test
+    void getSerializedByIdIsCachedPerVersion() {
+        given(repository.findWithInventoryById(id)).willReturn(rows(new BeerWithInventory(entity, null, null)));
+
+        var first = service.getSerializedById(id);
+        var second = service.getSerializedById(id);
+
+        Assertions.assertSame(first.getJson(), second.getJson());
+        Assertions.assertTrue(new String(first.getJson()).contains("\"beerName\":\"Testy McGuffin\""));
+
+        service.deleteById(id);
+        var changed = BeerDto.builder().id(id).version(2L).beerName("Changed").build();
+        given(repository.findWithInventoryById(id)).willReturn(rows(new BeerWithInventory(entity, null, null)));
+        given(mapper.beerToBeerDto(entity)).willReturn(changed);
+
+        var third = service.getSerializedById(id);
+
+        Assertions.assertNotSame(first.getJson(), third.getJson());
+        Assertions.assertTrue(new String(third.getJson()).contains("\"beerName\":\"Changed\""));
+    }
+
+    @Test
+    void saveNewBeers() {
+        var invalid = BeerDto.builder().build();
+        @SuppressWarnings("unchecked")
+        ConstraintViolation<BeerDto> violation = mock(ConstraintViolation.class);
+        given(violation.getPropertyPath()).willReturn(mock(Path.class));
+        given(violation.getMessage()).willReturn("must not be blank");
+        given(validator.validate(invalid)).willReturn(Set.of(violation));
+        given(repository.saveAll(anyList())).willReturn(List.of(entity));
+
+        var actual = service.saveNewBeers(List.of(invalid, dto));
+
+        Assertions.assertEquals(1, actual.getSucceeded());
+        Assertions.assertEquals(1, actual.getFailed());
+        Assertions.assertEquals(BeerBatchItemStatus.INVALID, actual.getItems().get(0).getStatus());
+        Assertions.assertEquals(BeerBatchItemStatus.CREATED, actual.getItems().get(1).getStatus());
+        Assertions.assertEquals(id, actual.getItems().get(1).getId());
+
+        verify(repository, times(1)).saveAll(List.of(entity));
+    }
+
+    @Test
+    void saveNewBeersIsolatesFailingItem() {
+        var duplicate = BeerDto.builder().beerName("Duplicate").build();
+        var duplicateEntity = Beer.builder().beerName("Duplicate").build();
+        given(mapper.beerDtoToBeer(duplicate)).willReturn(duplicateEntity);
+        given(repository.saveAll(anyList())).willAnswer(invocation -> {
+            List<Beer> beers = invocation.getArgument(0);
+            if (beers.contains(duplicateEntity))
+                throw new DataIntegrityViolationException("duplicate upc");
+            return beers;
+        });
+
+        var actual = service.saveNewBeers(List.of(dto, duplicate));
+
+        Assertions.assertEquals(1, actual.getSucceeded());
+        Assertions.assertEquals(BeerBatchItemStatus.CREATED, actual.getItems().get(0).getStatus());
+        Assertions.assertEquals(BeerBatchItemStatus.FAILED, actual.getItems().get(1).getStatus());
+        Assertions.assertEquals("duplicate upc", actual.getItems().get(1).getMessage());
+    }
+
+    @Test
+    void updateBeers() {
+        var missingId = UUID.randomUUID();
+        given(repository.findAllById(anyList())).willReturn(List.of(entity));
+        var dtos = new LinkedHashMap<UUID, BeerDto>();
+        dtos.put(id, dto);
+        dtos.put(missingId, dto);
+
+        var actual = service.updateBeers(dtos);
+
+        Assertions.assertEquals(1, actual.getSucceeded());
+        Assertions.assertEquals(BeerBatchItemStatus.UPDATED, actual.getItems().get(0).getStatus());
+        Assertions.assertEquals(BeerBatchItemStatus.NOT_FOUND, actual.getItems().get(1).getStatus());
+        Assertions.assertEquals(missingId, actual.getItems().get(1).getId());
+
+        verify(repository, times(1)).saveAll(List.of(entity));
+        verify(beerDtoCache, times(1)).invalidate(id);
+        // the price replaced is known from the loaded beer, the price history does not read it again
+        verify(eventPublisher, times(1)).publishEvent(argThat((Object event) -> event instanceof BeerChangedEvent
+                && ((BeerChangedEvent) event).isPreviousPriceKnown()
+                && entity.getPrice().equals(((BeerChangedEvent) event).getPreviousPrice())));
+    }
+
+    @Test
+    void deleteByIds() {
+        var missingId = UUID.randomUUID();
+        given(repository.findAllById(anyList())).willReturn(List.of(entity));
+
+        var actual = service.deleteByIds(List.of(missingId, id));
+
+        Assertions.assertEquals(1, actual.getSucceeded());
+        Assertions.assertEquals(BeerBatchItemStatus.NOT_FOUND, actual.getItems().get(0).getStatus());
+        Assertions.assertEquals(BeerBatchItemStatus.DELETED, actual.getItems().get(1).getStatus());
+
+        verify(repository, times(1)).deleteAll(anyIterable());
+        verify(beerDtoCache, times(1)).invalidate(id);
+    }
+
+    private static List<Object[]> rows(BeerWithInventory... beers) {
+        return Arrays.stream(beers)
+                .map(beer -> new Object[]{beer.getBeer(), beer.getPendingDelta(), beer.getLastAdjustedDate()})
+                .collect(Collectors.toList());
     }
-}
\ No newline at end of file
+}
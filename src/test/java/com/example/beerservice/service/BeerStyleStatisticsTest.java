@@ -0,0 +1,72 @@
+package com.example.beerservice.service;
+
+import com.example.beerservice.web.model.BeerStyle;
+import com.example.beerservice.web.model.BeerStyleStats;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+class BeerStyleStatisticsTest {
+
+    BeerStyleStatistics statistics;
+
+    UUID id;
+
+    @BeforeEach
+    void setUp() {
+        statistics = new BeerStyleStatistics();
+        id = UUID.randomUUID();
+
+        statistics.put(id, 1L, BeerStyle.LAGER, new BigDecimal("12.95"));
+        statistics.put(UUID.randomUUID(), 1L, BeerStyle.LAGER, new BigDecimal("10.00"));
+        statistics.put(UUID.randomUUID(), 1L, BeerStyle.LAGER, null);
+        statistics.put(UUID.randomUUID(), 1L, BeerStyle.IPA, new BigDecimal("6.99"));
+    }
+
+    @Test
+    void aggregatesPerStyle() {
+        var lager = stats(BeerStyle.LAGER);
+        Assertions.assertEquals(3, lager.getCount());
+        // unpriced beers count, but don't drag the average down
+        Assertions.assertEquals(new BigDecimal("11.48"), lager.getAveragePrice());
+
+        Assertions.assertEquals(1, stats(BeerStyle.IPA).getCount());
+        Assertions.assertEquals(0, stats(BeerStyle.STOUT).getCount());
+        Assertions.assertNull(stats(BeerStyle.STOUT).getAveragePrice());
+    }
+
+    @Test
+    void updateMovesContribution() {
+        statistics.put(id, 2L, BeerStyle.STOUT, new BigDecimal("4.00"));
+
+        Assertions.assertEquals(2, stats(BeerStyle.LAGER).getCount());
+        Assertions.assertEquals(new BigDecimal("10.00"), stats(BeerStyle.LAGER).getAveragePrice());
+        Assertions.assertEquals(1, stats(BeerStyle.STOUT).getCount());
+        Assertions.assertEquals(new BigDecimal("4.00"), stats(BeerStyle.STOUT).getAveragePrice());
+    }
+
+    @Test
+    void staleVersionIsIgnored() {
+        statistics.put(id, 3L, BeerStyle.STOUT, new BigDecimal("4.00"));
+        statistics.put(id, 2L, BeerStyle.LAGER, new BigDecimal("12.95"));
+
+        Assertions.assertEquals(2, stats(BeerStyle.LAGER).getCount());
+        Assertions.assertEquals(1, stats(BeerStyle.STOUT).getCount());
+    }
+
+    @Test
+    void removeSubtractsContribution() {
+        statistics.remove(id);
+        statistics.remove(id);
+
+        Assertions.assertEquals(2, stats(BeerStyle.LAGER).getCount());
+        Assertions.assertEquals(new BigDecimal("10.00"), stats(BeerStyle.LAGER).getAveragePrice());
+    }
+
+    private BeerStyleStats stats(BeerStyle beerStyle) {
+        return statistics.snapshot().get(beerStyle.ordinal());
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.beerservice.service;
+
+import com.example.beerservice.bootstrap.BeerWarmup;
+import com.example.beerservice.web.model.BeerBatchItemResult;
+import com.example.beerservice.web.model.BeerDto;
+import com.example.beerservice.web.model.BeerStyle;
+import com.example.beerservice.web.model.BeerStyleStats;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * The search index and the style statistics after batch writes of beers that are in the {@link BeerDtoCache}, whose entries are only
+ * evicted once the chunk committed.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:beerviews;DB_CLOSE_DELAY=-1")
+class BeerViewIntegrationTest {
+
+    @Autowired
+    BeerService beerService;
+
+    @Autowired
+    BeerSearchService beerSearchService;
+
+    @Autowired
+    BeerStyleStatsService beerStyleStatsService;
+
+    @Autowired
+    BeerWarmup beerWarmup;
+
+    @BeforeEach
+    void awaitWarmup() throws InterruptedException {
+        var deadline = System.nanoTime() + 30_000_000_000L;
+        while (!beerWarmup.isWarm() && System.nanoTime() < deadline)
+            Thread.sleep(50);
+        Assertions.assertTrue(beerWarmup.isWarm());
+    }
+
+    @Test
+    void batchDeleteRemovesCachedBeersFromTheSearch() {
+        var ids = saveCached("Zwickel", BeerStyle.SAISON);
+        Assertions.assertEquals(2, beerSearchService.search("Zwickel", null, 10).getTotal());
+
+        beerService.deleteByIds(ids);
+
+        Assertions.assertEquals(0, beerSearchService.search("Zwickel", null, 10).getTotal());
+    }
+
+    @Test
+    void batchUpdateIndexesTheNewNamesOfCachedBeers() {
+        var ids = saveCached("Kellerbier", BeerStyle.LAGER);
+
+        beerService.updateBeers(ids.stream().collect(Collectors.toMap(id -> id,
+                id -> beer("Maerzen " + id, BeerStyle.LAGER))));
+
+        Assertions.assertEquals(0, beerSearchService.search("Kellerbier", null, 10).getTotal());
+        Assertions.assertEquals(2, beerSearchService.search("Maerzen", null, 10).getTotal());
+    }
+
+    @Test
+    void batchDeleteRemovesCachedBeersFromTheStyleStats() {
+        var before = styleStats(BeerStyle.GOSE);
+        var ids = saveCached("Leipziger", BeerStyle.GOSE);
+        Assertions.assertEquals(before.getCount() + 2, styleStats(BeerStyle.GOSE).getCount());
+
+        beerService.deleteByIds(ids);
+
+        Assertions.assertEquals(before, styleStats(BeerStyle.GOSE));
+    }
+
+    @Test
+    void batchUpdateMovesCachedBeersToTheirNewStyle() {
+        var porters = styleStats(BeerStyle.PORTER).getCount();
+        var ids = saveCached("Baltic", BeerStyle.STOUT);
+        var stouts = styleStats(BeerStyle.STOUT).getCount();
+
+        beerService.updateBeers(ids.stream().collect(Collectors.toMap(id -> id,
+                id -> beer("Baltic " + id, BeerStyle.PORTER))));
+
+        Assertions.assertEquals(stouts - 2, styleStats(BeerStyle.STOUT).getCount());
+        Assertions.assertEquals(porters + 2, styleStats(BeerStyle.PORTER).getCount());
+    }
+
+    private BeerStyleStats styleStats(BeerStyle beerStyle) {
+        return beerStyleStatsService.getStyleStats().stream()
+                .filter(stats -> stats.getBeerStyle() == beerStyle)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private List<UUID> saveCached(String beerName, BeerStyle beerStyle) {
+        var ids = beerService.saveNewBeers(List.of(beer(beerName + " 1", beerStyle), beer(beerName + " 2", beerStyle)))
+                .getItems().stream().map(BeerBatchItemResult::getId).collect(Collectors.toList());
+        ids.forEach(beerService::getById);
+        return ids;
+    }
+
+    private static BeerDto beer(String beerName, BeerStyle beerStyle) {
+        return BeerDto.builder()
+                .beerName(beerName)
+                .beerStyle(beerStyle)
+                .upc(String.valueOf(Math.abs(UUID.randomUUID().getMostSignificantBits()) % 10_000_000_000_000L))
+                .price(new BigDecimal("3.95"))
+                .quantityOnHand(10)
+                .build();
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.beerservice.service;
+
+import com.example.beerservice.repository.BeerRepository;
+import com.example.beerservice.repository.BeerStockLevel;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(SpringExtension.class)
+class BrewOrderServiceImplTest {
+
+    @Mock
+    BeerRepository repository;
+
+    @InjectMocks
+    BrewOrderServiceImpl service;
+
+    UUID id;
+
+    @BeforeEach
+    void setUp() {
+        id = UUID.randomUUID();
+    }
+
+    @Test
+    void lowBeerGetsOneOrder() {
+        given(repository.findStockLevelsByIdIn(List.of(id))).willReturn(List.of(level(10, -5L)));
+
+        service.onBeerChanged(new BeerChangedEvent(id, BeerChangeType.INVENTORY_ADJUSTED));
+        service.checkDirtyBeers();
+        service.onBeerChanged(new BeerChangedEvent(id, BeerChangeType.INVENTORY_ADJUSTED));
+        service.checkDirtyBeers();
+
+        var orders = service.listOpenOrders();
+        Assertions.assertEquals(1, orders.size());
+        Assertions.assertEquals(id, orders.get(0).getBeerId());
+        Assertions.assertEquals(200, orders.get(0).getQuantityToBrew());
+        Assertions.assertEquals(5, orders.get(0).getQuantityOnHand());
+    }
+
+    @Test
+    void restockedBeerClosesOrder() {
+        given(repository.findStockLevelsByIdIn(List.of(id)))
+                .willReturn(List.of(level(10, null)))
+                .willReturn(List.of(level(10, 300L)));
+
+        service.onBeerChanged(new BeerChangedEvent(id, BeerChangeType.CREATED));
+        service.checkDirtyBeers();
+        Assertions.assertEquals(1, service.listOpenOrders().size());
+
+        service.onBeerChanged(new BeerChangedEvent(id, BeerChangeType.INVENTORY_ADJUSTED));
+        service.checkDirtyBeers();
+        Assertions.assertTrue(service.listOpenOrders().isEmpty());
+    }
+
+    @Test
+    void deletedBeerClosesOrder() {
+        given(repository.findStockLevelsByIdIn(List.of(id)))
+                .willReturn(List.of(level(0, null)))
+                .willReturn(List.of());
+
+        service.onBeerChanged(new BeerChangedEvent(id, BeerChangeType.CREATED));
+        service.checkDirtyBeers();
+        service.onBeerChanged(new BeerChangedEvent(id, BeerChangeType.DELETED));
+        service.checkDirtyBeers();
+
+        Assertions.assertTrue(service.listOpenOrders().isEmpty());
+    }
+
+    @Test
+    void unchangedBeersAreNotQueried() {
+        service.checkDirtyBeers();
+
+        verify(repository, never()).findStockLevelsByIdIn(anyCollection());
+    }
+
+    @Test
+    void startupCheckFindsLowBeers() {
+        given(repository.findStockLevelsAfter(isNull(), any())).willReturn(List.of(level(3, null)));
+
+        service.checkAllBeers();
+
+        Assertions.assertEquals(1, service.listOpenOrders().size());
+        verify(repository, times(1)).findStockLevelsAfter(isNull(), any());
+        verify(repository, never()).findStockLevelsAfter(eq(id), any());
+    }
+
+    private BeerStockLevel level(Integer folded, Long pending) {
+        return new BeerStockLevel(id, "Mango Bobs", 12, 200, folded, pending);
+    }
+}
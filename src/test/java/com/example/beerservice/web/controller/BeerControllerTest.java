@@ -1,9 +1,22 @@
 package com.example.beerservice.web.controller;
 
+import com.example.beerservice.service.BeerSearchService;
 import com.example.beerservice.service.BeerService;
+import com.example.beerservice.service.BeerStyleStatsService;
+import com.example.beerservice.service.SerializedBeer;
+import com.example.beerservice.web.model.BeerBatchItemResult;
+import com.example.beerservice.web.model.BeerBatchItemStatus;
+import com.example.beerservice.web.model.BeerBatchResult;
+import com.example.beerservice.web.model.BeerCursorList;
 import com.example.beerservice.web.model.BeerDto;
+import com.example.beerservice.web.model.BeerList;
+import com.example.beerservice.web.model.BeerLookupResult;
+import com.example.beerservice.web.model.BeerSearchHit;
+import com.example.beerservice.web.model.BeerSearchResult;
 import com.example.beerservice.web.model.BeerStyle;
+import com.example.beerservice.web.model.BeerStyleStats;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -11,6 +24,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.restdocs.AutoConfigureRestDocs;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.restdocs.RestDocumentationExtension;
 import org.springframework.restdocs.constraints.ConstraintDescriptions;
@@ -19,21 +34,38 @@ import org.springframework.restdocs.payload.RequestFieldsSnippet;
 import org.springframework.restdocs.payload.ResponseFieldsSnippet;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.util.StringUtils;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Consumer;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.startsWith;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willThrow;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.springframework.restdocs.headers.HeaderDocumentation.headerWithName;
+import static org.springframework.restdocs.headers.HeaderDocumentation.requestHeaders;
 import static org.springframework.restdocs.mockmvc.MockMvcRestDocumentation.document;
 import static org.springframework.restdocs.mockmvc.RestDocumentationRequestBuilders.*;
 import static org.springframework.restdocs.payload.PayloadDocumentation.*;
 import static org.springframework.restdocs.request.RequestDocumentation.parameterWithName;
 import static org.springframework.restdocs.request.RequestDocumentation.pathParameters;
+import static org.springframework.restdocs.request.RequestDocumentation.requestParameters;
 import static org.springframework.restdocs.snippet.Attributes.key;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @AutoConfigureRestDocs
@@ -44,6 +76,12 @@ class BeerControllerTest {
     @MockBean
     BeerService beerService;
 
+    @MockBean
+    BeerSearchService beerSearchService;
+
+    @MockBean
+    BeerStyleStatsService beerStyleStatsService;
+
     @Autowired
     MockMvc mockMvc;
 
@@ -53,6 +91,10 @@ class BeerControllerTest {
 
     ObjectMapper objectMapper = new ObjectMapper();
 
+    // the application's mapper, as used by the service to encode cached responses
+    @Autowired
+    ObjectMapper applicationObjectMapper;
+
     @BeforeEach
     void setUp() {
         mockId = UUID.randomUUID();
@@ -75,7 +117,7 @@ class BeerControllerTest {
     @Test
     public void testGetById() throws Exception {
 
-        given(beerService.getById(any())).willReturn(beerDto);
+        given(beerService.getSerializedById(any())).willReturn(serialized(beerDto));
 
         mockMvc.perform(get("/api/v1/beer/{beerId}", mockId))
                 .andExpect(status().isOk())
@@ -86,6 +128,8 @@ class BeerControllerTest {
                 .andExpect(jsonPath("$.upc").value(beerDto.getUpc()))
                 .andExpect(jsonPath("$.price").value(beerDto.getPrice().toPlainString()))
                 .andExpect(jsonPath("$.quantityOnHand").value(beerDto.getQuantityOnHand()))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + mockId + "-1-10000\""))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
                 .andDo(document("v1/beer-get",
                         pathParameters(
                                 parameterWithName("beerId").description("UUID of the desired beer")
@@ -93,7 +137,262 @@ class BeerControllerTest {
                         getBeerResponseFieldsSnippet()
                 ));
 
-        verify(beerService, times(1)).getById(any());
+        verify(beerService, times(1)).getSerializedById(any());
+    }
+
+    @Test
+    public void testGetByIdNotModified() throws Exception {
+        given(beerService.getSerializedById(any())).willReturn(serialized(beerDto));
+
+        mockMvc.perform(get("/api/v1/beer/{beerId}", mockId)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"" + mockId + "-1-10000\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + mockId + "-1-10000\""))
+                .andExpect(content().string(""))
+                .andDo(document("v1/beer-get-not-modified",
+                        pathParameters(
+                                parameterWithName("beerId").description("UUID of the desired beer")
+                        ),
+                        requestHeaders(
+                                headerWithName(HttpHeaders.IF_NONE_MATCH).description("ETag of the version the client already has")
+                        )));
+    }
+
+    @Test
+    public void testGetByIdModified() throws Exception {
+        beerDto.setVersion(2L);
+        given(beerService.getSerializedById(any())).willReturn(serialized(beerDto));
+
+        mockMvc.perform(get("/api/v1/beer/{beerId}", mockId)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"" + mockId + "-1-10000\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + mockId + "-2-10000\""))
+                .andExpect(jsonPath("$.version").value(2));
+    }
+
+    private SerializedBeer serialized(BeerDto beerDto) throws Exception {
+        return new SerializedBeer(beerDto, applicationObjectMapper.writeValueAsBytes(beerDto));
+    }
+
+    @Test
+    public void testGetByUpc() throws Exception {
+        given(beerService.getByUpc(any())).willReturn(beerDto);
+
+        mockMvc.perform(get("/api/v1/beer/upc/{upc}", beerDto.getUpc()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(mockId.toString()))
+                .andExpect(jsonPath("$.upc").value(beerDto.getUpc()))
+                .andDo(document("v1/beer-get-upc",
+                        pathParameters(
+                                parameterWithName("upc").description("UPC of the desired beer")
+                        ),
+                        getBeerResponseFieldsSnippet()
+                ));
+
+        verify(beerService, times(1)).getByUpc(beerDto.getUpc());
+    }
+
+    @Test
+    public void testGetByIds() throws Exception {
+        var missingId = UUID.randomUUID();
+        given(beerService.getByIds(any())).willReturn(BeerLookupResult.<UUID>builder()
+                .found(Map.of(mockId, beerDto))
+                .missing(List.of(missingId))
+                .build());
+
+        mockMvc.perform(post("/api/v1/beer/lookup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(mockId, missingId))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.found['" + mockId + "'].beerName").value(beerDto.getBeerName()))
+                .andExpect(jsonPath("$.missing[0]").value(missingId.toString()))
+                .andDo(document("v1/beer-lookup",
+                        requestFields(
+                                fieldWithPath("[]").description("Ids of the beers, at most 1000")
+                        ),
+                        responseFields(
+                                subsectionWithPath("found").description("Found beers by id"),
+                                fieldWithPath("missing").description("Ids without a beer")
+                        )));
+
+        verify(beerService, times(1)).getByIds(List.of(mockId, missingId));
+    }
+
+    @Test
+    public void testGetByUpcs() throws Exception {
+        var missingUpc = "0083783375213";
+        given(beerService.getByUpcs(any())).willReturn(BeerLookupResult.<String>builder()
+                .found(Map.of(beerDto.getUpc(), beerDto))
+                .missing(List.of(missingUpc))
+                .build());
+
+        mockMvc.perform(post("/api/v1/beer/upc/lookup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(beerDto.getUpc(), missingUpc))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.found['" + beerDto.getUpc() + "'].id").value(mockId.toString()))
+                .andExpect(jsonPath("$.missing[0]").value(missingUpc));
+
+        verify(beerService, times(1)).getByUpcs(List.of(beerDto.getUpc(), missingUpc));
+    }
+
+    @Test
+    public void testListBeers() throws Exception {
+        given(beerService.listBeers(any(), any(), any())).willReturn(new BeerList(List.of(beerDto)));
+
+        mockMvc.perform(get("/api/v1/beer")
+                .param("pageNumber", "0")
+                .param("pageSize", "10")
+                .param("beerName", beerDto.getBeerName())
+                .param("beerStyle", beerDto.getBeerStyle().name()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(mockId.toString()))
+                .andExpect(jsonPath("$.totalElements").value(1))
+                .andDo(document("v1/beer-list",
+                        requestParameters(
+                                parameterWithName("pageNumber").description("Zero based page number, defaults to 0"),
+                                parameterWithName("pageSize").description("Page size, defaults to 25"),
+                                parameterWithName("beerName").description("Optional filter on the exact beer name"),
+                                parameterWithName("beerStyle").description("Optional filter on the beer style")
+                        )));
+
+        verify(beerService, times(1)).listBeers(eq(beerDto.getBeerName()), eq(BeerStyle.ALE), any());
+    }
+
+    @Test
+    public void testListBeersInvalidPageSize() throws Exception {
+        mockMvc.perform(get("/api/v1/beer").param("pageSize", "0"))
+                .andExpect(status().isBadRequest());
+
+        verify(beerService, never()).listBeers(any(), any(), any());
+    }
+
+    @Test
+    public void testListBeersAfter() throws Exception {
+        var nextCursor = UUID.randomUUID();
+        given(beerService.listBeersAfter(any(), any(), any(), anyInt())).willReturn(BeerCursorList.builder()
+                .content(List.of(beerDto))
+                .size(1)
+                .nextCursor(nextCursor)
+                .build());
+
+        mockMvc.perform(get("/api/v1/beer/keyset")
+                .param("after", mockId.toString())
+                .param("pageSize", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(mockId.toString()))
+                .andExpect(jsonPath("$.nextCursor").value(nextCursor.toString()))
+                .andDo(document("v1/beer-list-keyset",
+                        requestParameters(
+                                parameterWithName("after").description("Cursor returned as nextCursor by the previous page, omit for the first page"),
+                                parameterWithName("pageSize").description("Page size, defaults to 25")
+                        )));
+
+        verify(beerService, times(1)).listBeersAfter(isNull(), isNull(), eq(mockId), eq(1));
+    }
+
+    @Test
+    public void testSearchBeers() throws Exception {
+        given(beerSearchService.search(any(), any(), anyInt())).willReturn(BeerSearchResult.builder()
+                .beers(List.of(new BeerSearchHit(mockId, "Mango Bobs", BeerStyle.IPA)))
+                .styles(Map.of(BeerStyle.IPA, 1))
+                .total(1)
+                .build());
+
+        mockMvc.perform(get("/api/v1/beer/search")
+                .param("q", "mango b")
+                .param("beerStyle", "IPA")
+                .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.beers[0].id").value(mockId.toString()))
+                .andExpect(jsonPath("$.styles.IPA").value(1))
+                .andExpect(jsonPath("$.total").value(1))
+                .andDo(document("v1/beer-search",
+                        requestParameters(
+                                parameterWithName("q").description("Prefixes of the words of the beer name"),
+                                parameterWithName("beerStyle").description("Only return beers of this style").optional(),
+                                parameterWithName("limit").description("Maximum number of beers, at most 100").optional()
+                        ),
+                        responseFields(
+                                fieldWithPath("beers[].id").description("UUID of the beer"),
+                                fieldWithPath("beers[].beerName").description("Name of the beer"),
+                                fieldWithPath("beers[].beerStyle").description("Style of the beer"),
+                                subsectionWithPath("styles").description("Number of matches per style, before filtering by style"),
+                                fieldWithPath("total").description("Number of matches")
+                        )));
+
+        verify(beerSearchService, times(1)).search("mango b", BeerStyle.IPA, 5);
+    }
+
+    @Test
+    public void testSearchBeersBlankQuery() throws Exception {
+        mockMvc.perform(get("/api/v1/beer/search").param("q", " "))
+                .andExpect(status().isBadRequest());
+
+        verify(beerSearchService, never()).search(any(), any(), anyInt());
+    }
+
+    @Test
+    public void testGetStyleStats() throws Exception {
+        given(beerStyleStatsService.getStyleStats()).willReturn(List.of(
+                new BeerStyleStats(BeerStyle.LAGER, 2, new BigDecimal("12.95")),
+                new BeerStyleStats(BeerStyle.PILSNER, 0, null)));
+
+        mockMvc.perform(get("/api/v1/beer/styles/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].beerStyle").value("LAGER"))
+                .andExpect(jsonPath("$[0].count").value(2))
+                .andExpect(jsonPath("$[0].averagePrice").value("12.95"))
+                .andDo(document("v1/beer-style-stats",
+                        responseFields(
+                                fieldWithPath("[].beerStyle").description("Style"),
+                                fieldWithPath("[].count").description("Number of beers of the style"),
+                                fieldWithPath("[].averagePrice").description("Average price of the beers of the style with a price").optional()
+                        )));
+    }
+
+    @Test
+    public void testExportBeersCsv() throws Exception {
+        beerDto.setBeerName("Testy, \"the\" McGuffin");
+        willAnswer(invocation -> {
+            invocation.<Consumer<BeerDto>>getArgument(0).accept(beerDto);
+            return null;
+        }).given(beerService).streamBeers(any());
+
+        var result = mockMvc.perform(get("/api/v1/beer/export").param("format", "CSV"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/csv"))
+                .andExpect(content().string(startsWith(
+                        "id,version,createdDate,lastModifiedDate,beerName,beerStyle,upc,price,quantityOnHand\n" + mockId + ",1,")))
+                .andExpect(content().string(containsString(
+                        ",\"Testy, \"\"the\"\" McGuffin\",ALE,0631234200036,6.99,10000\n")));
+    }
+
+    @Test
+    public void testExportBeersNdjson() throws Exception {
+        willAnswer(invocation -> {
+            invocation.<Consumer<BeerDto>>getArgument(0).accept(beerDto);
+            invocation.<Consumer<BeerDto>>getArgument(0).accept(beerDto);
+            return null;
+        }).given(beerService).streamBeers(any());
+
+        var result = mockMvc.perform(get("/api/v1/beer/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        var body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        var lines = body.split("\n");
+        Assertions.assertEquals(2, lines.length);
+        Assertions.assertTrue(body.endsWith("\n"));
+        Assertions.assertEquals(mockId.toString(), objectMapper.readTree(lines[1]).get("id").asText());
     }
 
     private ResponseFieldsSnippet getBeerResponseFieldsSnippet() {
@@ -169,6 +468,112 @@ class BeerControllerTest {
         verify(beerService, times(1)).updateBeer(any(), any());
     }
 
+    @Test
+    public void testUpdateBeerStaleVersion() throws Exception {
+        beerDto.setId(null);
+        beerDto.setCreatedDate(null);
+        beerDto.setLastModifiedDate(null);
+        beerDto.setVersion(null);
+        var json = objectMapper.writeValueAsString(beerDto);
+        willThrow(new ResponseStatusException(HttpStatus.CONFLICT)).given(beerService).updateBeer(any(), any());
+
+        mockMvc.perform(put("/api/v1/beer/{beerId}", mockId)
+                .param("version", "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json))
+                .andExpect(status().isConflict());
+
+        verify(beerService, times(1)).updateBeer(eq(mockId), argThat(dto -> dto.getVersion() == 1L));
+    }
+
+    @Test
+    public void testUpdateBeerIfMatch() throws Exception {
+        beerDto.setId(null);
+        beerDto.setCreatedDate(null);
+        beerDto.setLastModifiedDate(null);
+        beerDto.setVersion(null);
+        var json = objectMapper.writeValueAsString(beerDto);
+
+        mockMvc.perform(put("/api/v1/beer/{beerId}", mockId)
+                .header(HttpHeaders.IF_MATCH, "\"" + mockId + "-3-10000\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json))
+                .andExpect(status().isNoContent())
+                .andDo(document("v1/beer-update-if-match",
+                        pathParameters(
+                                parameterWithName("beerId").description("UUID of the desired beer")
+                        ),
+                        requestHeaders(
+                                headerWithName(HttpHeaders.IF_MATCH).description("ETag of the version the update is based on")
+                        )));
+
+        verify(beerService, times(1)).updateBeer(eq(mockId), argThat(dto -> dto.getVersion() == 3L));
+    }
+
+    @Test
+    public void testUpdateBeerIfMatchStale() throws Exception {
+        beerDto.setId(null);
+        beerDto.setCreatedDate(null);
+        beerDto.setLastModifiedDate(null);
+        beerDto.setVersion(null);
+        var json = objectMapper.writeValueAsString(beerDto);
+        willThrow(new ResponseStatusException(HttpStatus.CONFLICT)).given(beerService).updateBeer(any(), any());
+
+        mockMvc.perform(put("/api/v1/beer/{beerId}", mockId)
+                .header(HttpHeaders.IF_MATCH, "\"" + mockId + "-1-10000\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    public void testUpdateBeerIfMatchOtherBeer() throws Exception {
+        beerDto.setId(null);
+        beerDto.setCreatedDate(null);
+        beerDto.setLastModifiedDate(null);
+        beerDto.setVersion(null);
+        var json = objectMapper.writeValueAsString(beerDto);
+
+        mockMvc.perform(put("/api/v1/beer/{beerId}", mockId)
+                .header(HttpHeaders.IF_MATCH, "\"" + UUID.randomUUID() + "-1-10000\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json))
+                .andExpect(status().isPreconditionFailed());
+
+        verify(beerService, never()).updateBeer(any(), any());
+    }
+
+    @Test
+    public void testIncrementInventory() throws Exception {
+        mockMvc.perform(post("/api/v1/beer/{beerId}/inventory/increment", mockId).param("quantity", "24"))
+                .andExpect(status().isNoContent())
+                .andDo(document("v1/beer-inventory-increment",
+                        pathParameters(
+                                parameterWithName("beerId").description("UUID of the desired beer")
+                        ),
+                        requestParameters(
+                                parameterWithName("quantity").description("Quantity added to the quantity on hand")
+                        )));
+
+        verify(beerService, times(1)).adjustQuantityOnHand(mockId, 24);
+    }
+
+    @Test
+    public void testDecrementInventory() throws Exception {
+        mockMvc.perform(post("/api/v1/beer/{beerId}/inventory/decrement", mockId).param("quantity", "6"))
+                .andExpect(status().isNoContent());
+
+        verify(beerService, times(1)).adjustQuantityOnHand(mockId, -6);
+    }
+
+    @Test
+    public void testDecrementInventoryInvalidQuantity() throws Exception {
+        mockMvc.perform(post("/api/v1/beer/{beerId}/inventory/decrement", mockId).param("quantity", "0"))
+                .andExpect(status().isBadRequest());
+
+        verify(beerService, never()).adjustQuantityOnHand(any(), anyInt());
+    }
+
     @Test
     public void testDeleteBeer() throws Exception {
         mockMvc.perform(delete("/api/v1/beer/{beerId}", mockId))
@@ -181,6 +586,55 @@ class BeerControllerTest {
         verify(beerService, times(1)).deleteById(any());
     }
 
+    @Test
+    public void testCreateNewBeers() throws Exception {
+        beerDto.setId(null);
+        beerDto.setCreatedDate(null);
+        beerDto.setLastModifiedDate(null);
+        beerDto.setVersion(null);
+        var json = objectMapper.writeValueAsString(List.of(beerDto));
+        given(beerService.saveNewBeers(any())).willReturn(BeerBatchResult.builder()
+                .succeeded(1)
+                .failed(0)
+                .items(List.of(BeerBatchItemResult.builder()
+                        .index(0)
+                        .id(mockId)
+                        .status(BeerBatchItemStatus.CREATED)
+                        .build()))
+                .build());
+
+        mockMvc.perform(post("/api/v1/beer/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded").value(1))
+                .andExpect(jsonPath("$.items[0].id").value(mockId.toString()))
+                .andExpect(jsonPath("$.items[0].status").value("CREATED"))
+                .andDo(document("v1/beer-batch-new",
+                        responseFields(
+                                fieldWithPath("succeeded").description("Number of items that were written"),
+                                fieldWithPath("failed").description("Number of items that were rejected"),
+                                fieldWithPath("items[].index").description("Position of the item in the request"),
+                                fieldWithPath("items[].id").description("ID of the beer"),
+                                fieldWithPath("items[].status").description("Outcome of the item"),
+                                fieldWithPath("items[].message").description("Reason the item was rejected").optional()
+                        )));
+
+        verify(beerService, times(1)).saveNewBeers(any());
+    }
+
+    @Test
+    public void testDeleteBeers() throws Exception {
+        given(beerService.deleteByIds(any())).willReturn(BeerBatchResult.builder().items(List.of()).build());
+
+        mockMvc.perform(post("/api/v1/beer/batch/delete")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(mockId))))
+                .andExpect(status().isOk());
+
+        verify(beerService, times(1)).deleteByIds(List.of(mockId));
+    }
+
     private static class ConstrainedFields {
         private final ConstraintDescriptions constraintDescriptions;
 
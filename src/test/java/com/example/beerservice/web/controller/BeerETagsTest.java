@@ -0,0 +1,45 @@
+package com.example.beerservice.web.controller;
+
+import com.example.beerservice.domain.mapper.DateMapper;
+import com.example.beerservice.web.model.BeerDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.sql.Timestamp;
+import java.util.TimeZone;
+
+class BeerETagsTest {
+
+    TimeZone defaultTimeZone;
+
+    @BeforeEach
+    void setUp() {
+        defaultTimeZone = TimeZone.getDefault();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TimeZone.setDefault(defaultTimeZone);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"UTC", "Europe/Vienna", "America/New_York", "Asia/Kolkata"})
+    void lastModifiedIsTheInstantOfTheEntity(String zone) {
+        TimeZone.setDefault(TimeZone.getTimeZone(zone));
+        var timestamp = Timestamp.valueOf("2020-03-25 12:39:15.123");
+        var beerDto = BeerDto.builder().lastModifiedDate(new DateMapper().timestampToOffsetDateTime(timestamp)).build();
+
+        Assertions.assertEquals(timestamp.getTime(), BeerETags.lastModified(beerDto));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"UTC", "Europe/Vienna"})
+    void lastModifiedUnknown(String zone) {
+        TimeZone.setDefault(TimeZone.getTimeZone(zone));
+
+        Assertions.assertEquals(-1, BeerETags.lastModified(new BeerDto()));
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.beerservice.web.controller;
+
+import com.example.beerservice.service.BeerOutboxService;
+import com.example.beerservice.web.model.BeerEvent;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.restdocs.AutoConfigureRestDocs;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.restdocs.RestDocumentationExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.springframework.restdocs.mockmvc.MockMvcRestDocumentation.document;
+import static org.springframework.restdocs.mockmvc.RestDocumentationRequestBuilders.get;
+import static org.springframework.restdocs.request.RequestDocumentation.parameterWithName;
+import static org.springframework.restdocs.request.RequestDocumentation.requestParameters;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@AutoConfigureRestDocs
+@ExtendWith(RestDocumentationExtension.class)
+@WebMvcTest(BeerEventController.class)
+@Import(BeerEventStream.class)
+class BeerEventControllerTest {
+
+    @MockBean
+    BeerOutboxService beerOutboxService;
+
+    @Autowired
+    BeerEventStream beerEventStream;
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Test
+    public void testStreamEvents() throws Exception {
+        given(beerOutboxService.readAfter(eq(41L), anyInt())).willReturn(List.of(event(42)));
+
+        var result = mockMvc.perform(get("/api/v1/beer/events?after=41").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andDo(document("v1/beer-events",
+                        requestParameters(
+                                parameterWithName("after").description("Position to stream from, the events after it are sent first (default 0, everything kept)")
+                        )))
+                .andReturn();
+
+        // 42 overlaps with the catch-up and is only sent once
+        beerEventStream.publish(List.of(event(42), event(43)));
+
+        var content = awaitContent(result, "id:43\n");
+        Assertions.assertEquals(content.indexOf("id:42\n"), content.lastIndexOf("id:42\n"));
+        Assertions.assertTrue(content.indexOf("id:42\n") < content.indexOf("id:43\n"));
+        Assertions.assertTrue(content.contains("event:beer\n"));
+        Assertions.assertTrue(content.contains("\"type\":\"UPDATED\""));
+    }
+
+    @Test
+    public void testReadsGapFromOutbox() throws Exception {
+        given(beerOutboxService.readAfter(eq(41L), anyInt())).willReturn(List.of(event(42)));
+        given(beerOutboxService.readAfter(eq(42L), anyInt())).willReturn(List.of(event(43), event(44)));
+
+        var result = mockMvc.perform(get("/api/v1/beer/events?after=41").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        awaitContent(result, "id:42\n");
+
+        // 43 and 44 were relayed by another instance
+        beerEventStream.publish(List.of(event(45)));
+
+        var content = awaitContent(result, "id:45\n");
+        Assertions.assertTrue(content.indexOf("id:43\n") < content.indexOf("id:44\n"));
+        Assertions.assertTrue(content.indexOf("id:44\n") < content.indexOf("id:45\n"));
+    }
+
+    @Test
+    public void testPollsEventsRelayedElsewhere() throws Exception {
+        given(beerOutboxService.readAfter(eq(41L), anyInt())).willReturn(List.of(event(42)));
+        given(beerOutboxService.readAfter(eq(42L), anyInt())).willReturn(List.of(event(43)));
+        given(beerOutboxService.lastPosition()).willReturn(43L);
+
+        var result = mockMvc.perform(get("/api/v1/beer/events?after=41").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        awaitContent(result, "id:42\n");
+
+        beerEventStream.poll();
+
+        awaitContent(result, "id:43\n");
+    }
+
+    @Test
+    public void testResumeFromLastEventId() throws Exception {
+        mockMvc.perform(get("/api/v1/beer/events").header("Last-Event-ID", "7").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+
+        verify(beerOutboxService, timeout(5000)).readAfter(eq(7L), anyInt());
+    }
+
+    private static String awaitContent(MvcResult result, String expected) throws Exception {
+        var deadline = System.currentTimeMillis() + 5000;
+        var content = result.getResponse().getContentAsString();
+        while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            content = result.getResponse().getContentAsString();
+        }
+        Assertions.assertTrue(content.contains(expected), content);
+        return content;
+    }
+
+    private static BeerEvent event(long position) {
+        return BeerEvent.builder()
+                .position(position)
+                .beerId(UUID.randomUUID())
+                .type("UPDATED")
+                .occurredDate(OffsetDateTime.now())
+                .build();
+    }
+}
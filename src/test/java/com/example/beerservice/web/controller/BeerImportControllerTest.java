@@ -0,0 +1,127 @@
+package com.example.beerservice.web.controller;
+
+import com.example.beerservice.service.BeerImportService;
+import com.example.beerservice.web.model.BeerExportFormat;
+import com.example.beerservice.web.model.BeerImportError;
+import com.example.beerservice.web.model.BeerImportJob;
+import com.example.beerservice.web.model.BeerImportStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.restdocs.AutoConfigureRestDocs;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.restdocs.RestDocumentationExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.InputStream;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.restdocs.mockmvc.MockMvcRestDocumentation.document;
+import static org.springframework.restdocs.mockmvc.RestDocumentationRequestBuilders.get;
+import static org.springframework.restdocs.mockmvc.RestDocumentationRequestBuilders.post;
+import static org.springframework.restdocs.payload.PayloadDocumentation.fieldWithPath;
+import static org.springframework.restdocs.payload.PayloadDocumentation.responseFields;
+import static org.springframework.restdocs.request.RequestDocumentation.parameterWithName;
+import static org.springframework.restdocs.request.RequestDocumentation.requestParameters;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureRestDocs
+@ExtendWith(RestDocumentationExtension.class)
+@WebMvcTest(BeerImportController.class)
+class BeerImportControllerTest {
+
+    @MockBean
+    BeerImportService beerImportService;
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Test
+    public void testImportBeers() throws Exception {
+        var job = BeerImportJob.builder()
+                .id(UUID.randomUUID())
+                .status(BeerImportStatus.QUEUED)
+                .format(BeerExportFormat.CSV)
+                .errors(List.of())
+                .createdDate(OffsetDateTime.now())
+                .build();
+        given(beerImportService.importBeers(any(InputStream.class), eq(BeerExportFormat.CSV))).willReturn(job);
+
+        mockMvc.perform(post("/api/v1/beer/import?format=CSV")
+                .contentType("text/csv")
+                .content("beerName,beerStyle,upc,price\nMango Bobs,IPA,0631234200036,12.95\n"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string(HttpHeaders.LOCATION, "/api/v1/beer/import/" + job.getId()))
+                .andExpect(jsonPath("$.status").value("QUEUED"))
+                .andDo(document("v1/beer-import",
+                        requestParameters(
+                                parameterWithName("format").description("NDJSON (default) or CSV, as written by the export")
+                        )));
+    }
+
+    @Test
+    public void testGetJob() throws Exception {
+        var job = BeerImportJob.builder()
+                .id(UUID.randomUUID())
+                .status(BeerImportStatus.RUNNING)
+                .format(BeerExportFormat.CSV)
+                .read(120_000)
+                .created(119_500)
+                .duplicates(480)
+                .invalid(20)
+                .errors(List.of(BeerImportError.builder()
+                        .line(1_042)
+                        .upc("0631234200036")
+                        .message("price: must be greater than 0")
+                        .build()))
+                .createdDate(OffsetDateTime.now())
+                .startedDate(OffsetDateTime.now())
+                .build();
+        given(beerImportService.getJob(job.getId())).willReturn(job);
+
+        mockMvc.perform(get("/api/v1/beer/import/{jobId}", job.getId()).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(119_500))
+                .andExpect(jsonPath("$.errors[0].line").value(1_042))
+                .andDo(document("v1/beer-import-job",
+                        responseFields(
+                                fieldWithPath("id").description("Id of the import"),
+                                fieldWithPath("status").description("QUEUED, RUNNING, COMPLETED or FAILED"),
+                                fieldWithPath("format").description("Format of the file"),
+                                fieldWithPath("read").description("Records read so far"),
+                                fieldWithPath("created").description("Beers created"),
+                                fieldWithPath("duplicates").description("Records skipped because their upc is already in the catalogue or earlier in the file"),
+                                fieldWithPath("invalid").description("Records that could not be parsed or failed validation"),
+                                fieldWithPath("failed").description("Records that could not be written"),
+                                fieldWithPath("errors[]").description("The first 100 invalid or failed records"),
+                                fieldWithPath("errors[].line").description("Line the record starts at"),
+                                fieldWithPath("errors[].upc").description("Upc of the record, if it has one"),
+                                fieldWithPath("errors[].message").description("What is wrong with the record"),
+                                fieldWithPath("message").description("Why the import failed as a whole").optional(),
+                                fieldWithPath("createdDate").description("When the import was queued"),
+                                fieldWithPath("startedDate").description("When the import started").optional(),
+                                fieldWithPath("finishedDate").description("When the import finished").optional()
+                        )));
+    }
+
+    @Test
+    public void testGetJobNotFound() throws Exception {
+        var jobId = UUID.randomUUID();
+        given(beerImportService.getJob(jobId)).willThrow(new ResponseStatusException(HttpStatus.NOT_FOUND));
+
+        mockMvc.perform(get("/api/v1/beer/import/{jobId}", jobId))
+                .andExpect(status().isNotFound());
+    }
+}
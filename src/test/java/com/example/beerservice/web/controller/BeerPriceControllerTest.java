@@ -0,0 +1,116 @@
+package com.example.beerservice.web.controller;
+
+import com.example.beerservice.service.BeerPriceHistoryService;
+import com.example.beerservice.web.model.BeerPricePoint;
+import com.example.beerservice.web.model.BeerStyle;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.restdocs.AutoConfigureRestDocs;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.restdocs.RestDocumentationExtension;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+import static org.springframework.restdocs.mockmvc.MockMvcRestDocumentation.document;
+import static org.springframework.restdocs.mockmvc.RestDocumentationRequestBuilders.get;
+import static org.springframework.restdocs.payload.PayloadDocumentation.fieldWithPath;
+import static org.springframework.restdocs.payload.PayloadDocumentation.responseFields;
+import static org.springframework.restdocs.request.RequestDocumentation.parameterWithName;
+import static org.springframework.restdocs.request.RequestDocumentation.pathParameters;
+import static org.springframework.restdocs.request.RequestDocumentation.requestParameters;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureRestDocs
+@ExtendWith(RestDocumentationExtension.class)
+@WebMvcTest(BeerPriceController.class)
+class BeerPriceControllerTest {
+
+    static final OffsetDateTime JANUARY = OffsetDateTime.of(2020, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    @MockBean
+    BeerPriceHistoryService priceHistoryService;
+
+    @Autowired
+    MockMvc mockMvc;
+
+    UUID beerId = UUID.randomUUID();
+
+    @Test
+    public void testGetPriceAt() throws Exception {
+        given(priceHistoryService.getPriceAt(eq(beerId), any())).willReturn(point(new BigDecimal("12.95"), JANUARY));
+
+        mockMvc.perform(get("/api/v1/beer/{beerId}/price", beerId).param("at", "2020-01-15T12:00:00Z"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.price").value("12.95"))
+                .andExpect(jsonPath("$.effectiveDate").value("2020-01-01T00:00:00.000+0000"))
+                .andDo(document("v1/beer-price",
+                        pathParameters(
+                                parameterWithName("beerId").description("UUID of desired beer")
+                        ),
+                        requestParameters(
+                                parameterWithName("at").description("ISO date time, now if left out")
+                        ),
+                        responseFields(
+                                fieldWithPath("beerId").description("Id of the beer"),
+                                fieldWithPath("price").description("Price of the beer at that time"),
+                                fieldWithPath("effectiveDate").description("Since when the beer had this price")
+                        )));
+
+        verify(priceHistoryService).getPriceAt(beerId, OffsetDateTime.of(2020, 1, 15, 12, 0, 0, 0, ZoneOffset.UTC));
+    }
+
+    @Test
+    public void testGetPriceHistory() throws Exception {
+        given(priceHistoryService.getPriceHistory(eq(beerId), any(), any())).willReturn(List.of(
+                point(new BigDecimal("11.95"), JANUARY),
+                point(new BigDecimal("12.95"), JANUARY.plusDays(20))));
+
+        mockMvc.perform(get("/api/v1/beer/{beerId}/price/history", beerId)
+                .param("from", "2020-01-10T00:00:00Z")
+                .param("to", "2020-02-01T00:00:00Z"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].price").value("11.95"))
+                .andExpect(jsonPath("$[1].price").value("12.95"))
+                .andDo(document("v1/beer-price-history",
+                        requestParameters(
+                                parameterWithName("from").description("ISO date time, the first price is the one in effect then"),
+                                parameterWithName("to").description("ISO date time, exclusive")
+                        )));
+    }
+
+    @Test
+    public void testGetStylePricesAt() throws Exception {
+        given(priceHistoryService.getStylePricesAt(eq(BeerStyle.LAGER), any()))
+                .willReturn(List.of(point(new BigDecimal("12.95"), JANUARY)));
+
+        mockMvc.perform(get("/api/v1/beer/styles/{beerStyle}/prices", "LAGER"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].beerId").value(beerId.toString()));
+    }
+
+    @Test
+    public void testGetPriceHistoryWithoutRange() throws Exception {
+        mockMvc.perform(get("/api/v1/beer/{beerId}/price/history", beerId))
+                .andExpect(status().isBadRequest());
+    }
+
+    private BeerPricePoint point(BigDecimal price, OffsetDateTime effectiveDate) {
+        return BeerPricePoint.builder()
+                .beerId(beerId)
+                .price(price)
+                .effectiveDate(effectiveDate)
+                .build();
+    }
+}
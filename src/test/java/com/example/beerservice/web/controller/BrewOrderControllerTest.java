@@ -0,0 +1,63 @@
+package com.example.beerservice.web.controller;
+
+import com.example.beerservice.service.BrewOrderService;
+import com.example.beerservice.web.model.BrewOrderDto;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.restdocs.AutoConfigureRestDocs;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.restdocs.RestDocumentationExtension;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.BDDMockito.given;
+import static org.springframework.restdocs.mockmvc.MockMvcRestDocumentation.document;
+import static org.springframework.restdocs.mockmvc.RestDocumentationRequestBuilders.get;
+import static org.springframework.restdocs.payload.PayloadDocumentation.fieldWithPath;
+import static org.springframework.restdocs.payload.PayloadDocumentation.responseFields;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureRestDocs
+@ExtendWith(RestDocumentationExtension.class)
+@WebMvcTest(BrewOrderController.class)
+class BrewOrderControllerTest {
+
+    @MockBean
+    BrewOrderService brewOrderService;
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Test
+    public void testListOpenOrders() throws Exception {
+        var beerId = UUID.randomUUID();
+        given(brewOrderService.listOpenOrders()).willReturn(List.of(BrewOrderDto.builder()
+                .beerId(beerId)
+                .beerName("Mango Bobs")
+                .quantityToBrew(200)
+                .quantityOnHand(4L)
+                .minOnHand(12)
+                .createdDate(OffsetDateTime.now())
+                .build()));
+
+        mockMvc.perform(get("/api/v1/brew-orders"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].beerId").value(beerId.toString()))
+                .andExpect(jsonPath("$[0].quantityToBrew").value(200))
+                .andDo(document("v1/brew-orders",
+                        responseFields(
+                                fieldWithPath("[].beerId").description("UUID of the beer to brew"),
+                                fieldWithPath("[].beerName").description("Name of the beer"),
+                                fieldWithPath("[].quantityToBrew").description("Quantity to brew"),
+                                fieldWithPath("[].quantityOnHand").description("Quantity on hand when the order was raised"),
+                                fieldWithPath("[].minOnHand").description("Minimum quantity on hand of the beer"),
+                                fieldWithPath("[].createdDate").description("When the order was raised")
+                        )));
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.beerservice.web.filter;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+class OffloadingFilterTest {
+
+    MockHttpServletRequest request;
+    MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() {
+        request = new MockHttpServletRequest("GET", "/api/v1/beer/1");
+        request.setAsyncSupported(true);
+        response = new MockHttpServletResponse();
+    }
+
+    @Test
+    void runsChainOnExecutorAsPlainRequest() throws Exception {
+        var worker = new AtomicReference<String>();
+        var seen = new AtomicReference<HttpServletRequest>();
+        Executor executor = command -> {
+            var thread = new Thread(command, "worker");
+            thread.start();
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        };
+        FilterChain chain = (req, res) -> {
+            worker.set(Thread.currentThread().getName());
+            seen.set((HttpServletRequest) req);
+        };
+
+        new OffloadingFilter(executor, 1000, List.of("/export")).doFilter(request, response, chain);
+
+        Assertions.assertEquals("worker", worker.get());
+        Assertions.assertFalse(seen.get().isAsyncStarted());
+        // completed once the worker is done
+        Assertions.assertFalse(request.isAsyncStarted());
+        Assertions.assertNotNull(request.getAsyncContext());
+    }
+
+    @Test
+    void rejectsWhenSaturated() throws Exception {
+        Executor executor = command -> {
+            throw new RejectedExecutionException();
+        };
+
+        new OffloadingFilter(executor, 1000, List.of("/export")).doFilter(request, response, new MockFilterChain());
+
+        Assertions.assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), response.getStatus());
+        Assertions.assertEquals("1", response.getHeader(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void leavesExcludedPathsOnContainerThread() throws Exception {
+        request.setRequestURI("/api/v1/beer/export");
+        Executor executor = command -> Assertions.fail("export must not be offloaded");
+        var chain = new MockFilterChain();
+
+        new OffloadingFilter(executor, 1000, List.of("/export")).doFilter(request, response, chain);
+
+        Assertions.assertFalse(request.isAsyncStarted());
+        Assertions.assertNotNull(chain.getRequest());
+    }
+
+    @Test
+    void skipsRequestsThatTimedOutWhileQueued() throws Exception {
+        var queued = new AtomicReference<Runnable>();
+        FilterChain chain = (req, res) -> Assertions.fail("timed out request must not run");
+
+        new OffloadingFilter(queued::set, 1000, List.of("/export")).doFilter(request, response, chain);
+        var completions = countCompletions();
+        timeout();
+        queued.get().run();
+
+        Assertions.assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), response.getStatus());
+        Assertions.assertEquals("1", response.getHeader(HttpHeaders.RETRY_AFTER));
+        Assertions.assertEquals(1, completions.get());
+    }
+
+    @Test
+    void dropsWhatSlowHandlersWriteAfterTheTimeout() throws Exception {
+        var queued = new AtomicReference<Runnable>();
+        FilterChain chain = (req, res) -> {
+            timeout();
+            res.setContentType("text/plain");
+            res.getWriter().write("too late");
+            res.getOutputStream().write(1);
+        };
+
+        new OffloadingFilter(queued::set, 1000, List.of("/export")).doFilter(request, response, chain);
+        var completions = countCompletions();
+        queued.get().run();
+
+        Assertions.assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), response.getStatus());
+        Assertions.assertNull(response.getContentType());
+        Assertions.assertEquals(0, response.getContentLength());
+        Assertions.assertEquals("", response.getContentAsString());
+        Assertions.assertEquals(1, completions.get());
+    }
+
+    private AtomicInteger countCompletions() {
+        var completions = new AtomicInteger();
+        request.getAsyncContext().addListener(new AsyncListener() {
+            @Override
+            public void onComplete(AsyncEvent event) {
+                completions.incrementAndGet();
+            }
+
+            @Override
+            public void onTimeout(AsyncEvent event) {
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+            }
+        });
+        return completions;
+    }
+
+    private void timeout() throws IOException {
+        var asyncContext = (MockAsyncContext) request.getAsyncContext();
+        for (AsyncListener listener : List.copyOf(asyncContext.getListeners()))
+            listener.onTimeout(new AsyncEvent(asyncContext));
+    }
+}